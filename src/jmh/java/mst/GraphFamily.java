@@ -0,0 +1,154 @@
+package mst;
+
+import java.util.Random;
+
+// Synthetic graph families for the benchmarks, sized by their approximate edge count.
+// Every family is connected, so all algorithms build a full spanning tree; weights are in [0, 10^6).
+public enum GraphFamily {
+	// Random graph with average degree 8 on top of a random spanning tree
+	SPARSE {
+		@Override
+		Graph generate(int edges, long seed) {
+			return randomGraph(Math.max(2, edges / 4), edges, seed);
+		}
+	},
+	// Random multigraph on about sqrt(2m) vertices, close to complete
+	DENSE {
+		@Override
+		Graph generate(int edges, long seed) {
+			return randomGraph(Math.max(2, (int) Math.sqrt(2.0 * edges)), edges, seed);
+		}
+	},
+	// Square 4-neighbour grid with random weights
+	GRID {
+		@Override
+		Graph generate(int edges, long seed) {
+			Random random = new Random(seed);
+			int side = Math.max(2, (int) Math.ceil(Math.sqrt(edges / 2.0)));
+			Graph.Builder builder = new Graph.Builder(2 * side * (side - 1));
+			for (int r = 0; r < side; r++) {
+				for (int c = 0; c < side; c++) {
+					int v = r * side + c;
+					if (c + 1 < side) {
+						builder.addEdge(v, v + 1, random.nextInt(WEIGHTS));
+					}
+					if (r + 1 < side) {
+						builder.addEdge(v, v + side, random.nextInt(WEIGHTS));
+					}
+				}
+			}
+			return builder.build();
+		}
+	},
+	// Points in the unit square joined when closer than the radius giving average degree 8,
+	// weighted by distance; consecutive points are also joined so the graph is connected
+	GEOMETRIC {
+		@Override
+		Graph generate(int edges, long seed) {
+			Random random = new Random(seed);
+			int n = Math.max(2, edges / 5);
+			double radius = Math.sqrt(8.0 / (Math.PI * n));
+			double[] x = new double[n];
+			double[] y = new double[n];
+			for (int i = 0; i < n; i++) {
+				x[i] = random.nextDouble();
+				y[i] = random.nextDouble();
+			}
+
+			// Bucket points into cells of side radius so only neighbouring cells are compared
+			int cells = Math.max(1, (int) (1 / radius));
+			int[] cellStart = new int[cells * cells + 1];
+			int[] cellOf = new int[n];
+			for (int i = 0; i < n; i++) {
+				cellOf[i] = Math.min(cells - 1, (int) (x[i] * cells)) * cells + Math.min(cells - 1, (int) (y[i] * cells));
+				cellStart[cellOf[i] + 1]++;
+			}
+			for (int c = 0; c < cells * cells; c++) {
+				cellStart[c + 1] += cellStart[c];
+			}
+			int[] byCell = new int[n];
+			int[] next = cellStart.clone();
+			for (int i = 0; i < n; i++) {
+				byCell[next[cellOf[i]]++] = i;
+			}
+
+			Graph.Builder builder = new Graph.Builder(edges);
+			builder.vertices(n);
+			for (int i = 0; i + 1 < n; i++) {
+				builder.addEdge(i, i + 1, distance(x, y, i, i + 1));
+			}
+			for (int i = 0; i < n; i++) {
+				int cx = cellOf[i] / cells;
+				int cy = cellOf[i] % cells;
+				for (int dx = -1; dx <= 1; dx++) {
+					for (int dy = -1; dy <= 1; dy++) {
+						int nx = cx + dx;
+						int ny = cy + dy;
+						if (nx < 0 || ny < 0 || nx >= cells || ny >= cells) {
+							continue;
+						}
+						int c = nx * cells + ny;
+						for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+							int j = byCell[k];
+							if (j > i + 1 && distance(x, y, i, j) < radius * WEIGHTS) {
+								builder.addEdge(i, j, distance(x, y, i, j));
+							}
+						}
+					}
+				}
+			}
+			return builder.build();
+		}
+	},
+	// Barabasi-Albert preferential attachment: each new vertex links to 4 degree-biased targets
+	POWER_LAW {
+		@Override
+		Graph generate(int edges, long seed) {
+			Random random = new Random(seed);
+			int links = 4;
+			int n = Math.max(links + 1, edges / links);
+			Graph.Builder builder = new Graph.Builder(edges + links * links);
+			int[] endpoints = new int[2 * (n * links + links * links)];
+			int count = 0;
+			for (int u = 0; u <= links; u++) {
+				for (int v = u + 1; v <= links; v++) {
+					builder.addEdge(u, v, random.nextInt(WEIGHTS));
+					endpoints[count++] = u;
+					endpoints[count++] = v;
+				}
+			}
+			for (int v = links + 1; v < n; v++) {
+				int existing = count;
+				for (int k = 0; k < links; k++) {
+					int u = endpoints[random.nextInt(existing)];
+					builder.addEdge(u, v, random.nextInt(WEIGHTS));
+					endpoints[count++] = u;
+					endpoints[count++] = v;
+				}
+			}
+			return builder.build();
+		}
+	};
+
+	static final int WEIGHTS = 1_000_000;
+
+	abstract Graph generate(int edges, long seed);
+
+	// A random spanning tree plus random edges up to the requested count
+	static Graph randomGraph(int n, int edges, long seed) {
+		Random random = new Random(seed);
+		Graph.Builder builder = new Graph.Builder(Math.max(edges, n - 1));
+		builder.vertices(n);
+		for (int v = 1; v < n; v++) {
+			builder.addEdge(random.nextInt(v), v, random.nextInt(WEIGHTS));
+		}
+		for (int e = n - 1; e < edges; e++) {
+			builder.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(WEIGHTS));
+		}
+		return builder.build();
+	}
+
+	private static long distance(double[] x, double[] y, int i, int j) {
+		return (long) (Math.hypot(x[i] - x[j], y[i] - y[j]) * WEIGHTS);
+	}
+}
@@ -0,0 +1,140 @@
+package mst;
+
+import java.util.*;
+import java.util.List;
+
+// The original String/HashMap implementations of Kruskal and Prim.
+// No longer used by the GUI; kept as the baseline the primitive engine in Mst is measured against.
+final class LegacyMst {
+	private LegacyMst() {
+	}
+
+	// Kruskal's Algorithm Implementation
+	static String kruskalAlgorithm(Map<String, Integer> weights) {
+		// Step 1: Create a list of all edges
+		List<Edge> allEdges = new ArrayList<>();
+		for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+			String[] nodes = entry.getKey().split(" - ");
+			String source = nodes[0];
+			String target = nodes[1];
+			int weight = entry.getValue();
+			allEdges.add(new Edge(source, target, weight));
+		}
+
+		// Step 2: Sort edges by weight
+		Collections.sort(allEdges, Comparator.comparingInt(e -> e.weight));
+
+		// Step 3: Initialize Disjoint Set (Union-Find) data structure
+		Map<String, String> parent = new HashMap<>();
+		for (Edge edge : allEdges) {
+			parent.put(edge.source, edge.source);
+			parent.put(edge.target, edge.target);
+		}
+
+		// Step 4: Process edges and form MST
+		List<Edge> mstEdges = new ArrayList<>();
+		for (Edge edge : allEdges) {
+			String rootSource = find(parent, edge.source);
+			String rootTarget = find(parent, edge.target);
+			if (!rootSource.equals(rootTarget)) {
+				mstEdges.add(edge);
+				union(parent, rootSource, rootTarget);
+			}
+		}
+
+		// Step 5: Format the result as a string
+		StringBuilder result = new StringBuilder("Kruskal's Algorithm MST:\n");
+		for (Edge edge : mstEdges) {
+			result.append(edge.source).append(" - ").append(edge.target)
+			.append(" (").append(edge.weight).append(")\n");
+		}
+		return result.toString();
+	}
+
+	// Find operation for Disjoint Set (Union-Find)
+	static String find(Map<String, String> parent, String node) {
+		if (!parent.get(node).equals(node)) {
+			parent.put(node, find(parent, parent.get(node))); // Path compression
+		}
+		return parent.get(node);
+	}
+
+	// Union operation for Disjoint Set (Union-Find)
+	static void union(Map<String, String> parent, String rootSource, String rootTarget) {
+		parent.put(rootSource, rootTarget); // Union step
+	}
+
+	// Prim's Algorithm Implementation
+	static String primAlgorithm(Map<String, Integer> weights, String start) {
+		// Step 1: Create adjacency list
+		Map<String, List<Edge>> adjList = createAdjacencyList(weights);
+
+		// Step 2: Initialize data structures for Prim's Algorithm
+		Set<String> visited = new HashSet<>();
+		PriorityQueue<Edge> minHeap = new PriorityQueue<>(Comparator.comparingInt(e -> e.weight));
+
+		// Step 3: Start with the given node
+		visited.add(start);
+		addEdges(start, adjList, minHeap, visited);
+
+		List<Edge> mstEdges = new ArrayList<>();
+
+		// Step 4: Run Prim's algorithm
+		while (!minHeap.isEmpty()) {
+			Edge edge = minHeap.poll();
+			if (!visited.contains(edge.target)) {
+				mstEdges.add(edge);
+				visited.add(edge.target);
+				addEdges(edge.target, adjList, minHeap, visited);
+			}
+		}
+
+		// Step 5: Format the result as a string
+		StringBuilder result = new StringBuilder("Prim's Algorithm MST:\n");
+		for (Edge edge : mstEdges) {
+			result.append(edge.source).append(" - ").append(edge.target)
+			.append(" (").append(edge.weight).append(")\n");
+		}
+		return result.toString();
+	}
+
+	// Helper to add edges to the min heap from a node
+	private static void addEdges(String node, Map<String, List<Edge>> adjList,
+	                             PriorityQueue<Edge> minHeap, Set<String> visited) {
+		for (Edge edge : adjList.getOrDefault(node, new ArrayList<>())) {
+			if (!visited.contains(edge.target)) {
+				minHeap.offer(edge);
+			}
+		}
+	}
+
+	// Create adjacency list representation of the graph
+	private static Map<String, List<Edge>> createAdjacencyList(Map<String, Integer> weights) {
+		Map<String, List<Edge>> adjList = new HashMap<>();
+
+		// Fill the adjacency list based on edge names and weights
+		for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+			String[] nodes = entry.getKey().split(" - ");
+			String source = nodes[0];
+			String target = nodes[1];
+			int weight = entry.getValue();
+
+			adjList.computeIfAbsent(source, k -> new ArrayList<>()).add(new Edge(source, target, weight));
+			adjList.computeIfAbsent(target, k -> new ArrayList<>()).add(new Edge(target, source, weight)); // Undirected graph
+		}
+
+		return adjList;
+	}
+
+	// Edge class to represent an edge with a weight
+	private static class Edge {
+		String source, target;
+		int weight;
+
+		Edge(String source, String target, int weight) {
+			this.source = source;
+			this.target = target;
+			this.weight = weight;
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package mst;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Baseline: the original String/HashMap Kruskal and Prim from LegacyMst on the same graph families.
+// The weights map keeps one entry per vertex pair, so parallel edges collapse to the last one generated.
+// Sizes stop at 10^6 edges; beyond that the map-based version exhausts the heap.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-Xss64m"})
+public class LegacyMstBenchmark {
+	@Param({"SPARSE", "DENSE", "GRID", "GEOMETRIC", "POWER_LAW"})
+	GraphFamily family;
+
+	@Param({"1000", "10000", "100000", "1000000"})
+	int edges;
+
+	@Param({"KRUSKAL", "PRIM"})
+	String algorithm;
+
+	private Map<String, Integer> weights;
+	private String start;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		Graph graph = family.generate(edges, 42);
+		weights = new HashMap<>();
+		for (int e = 0; e < graph.edgeCount(); e++) {
+			weights.put("v" + graph.source(e) + " - v" + graph.target(e), (int) graph.weight(e));
+		}
+		start = "v0";
+	}
+
+	@Benchmark
+	public String mst() {
+		return "KRUSKAL".equals(algorithm) ? LegacyMst.kruskalAlgorithm(weights) : LegacyMst.primAlgorithm(weights, start);
+	}
+}
@@ -0,0 +1,56 @@
+package mst;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Throughput of every primitive MST engine across graph families and sizes.
+// Run with allocation and heap profiling:
+//   java -jar target/benchmarks.jar MstBenchmark -prof gc -prof mst.PeakHeapProfiler
+// Narrow the matrix with -p, e.g. -p family=GRID -p edges=1000000.
+// Every invocation runs on a graph without a cached edge order, so Kruskal's score includes its sort
+// and compares with the other algorithms and with LegacyMstBenchmark.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MstBenchmark {
+	@Param({"SPARSE", "DENSE", "GRID", "GEOMETRIC", "POWER_LAW"})
+	GraphFamily family;
+
+	@Param({"1000", "10000", "100000", "1000000", "10000000"})
+	int edges;
+
+	@Param({"KRUSKAL", "PRIM", "PRIM_EAGER", "BORUVKA"})
+	MstAlgorithm algorithm;
+
+	private Graph graph;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		graph = family.generate(edges, 42);
+	}
+
+	@Benchmark
+	public int[] mst() {
+		return algorithm.compute(unsorted(), MstMonitor.NONE);
+	}
+
+	// The generated graph over the same arrays but without the edge order a previous Kruskal cached on it
+	private Graph unsorted() {
+		return Graph.fromCsr(null, graph.idBase(), graph.sources(), graph.targets(), graph.weights(), graph.hasDoubleWeights(),
+				graph.offsets(), graph.adjacentTargets(), graph.adjacentEdges());
+	}
+}
@@ -0,0 +1,65 @@
+package mst;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// How parallel Boruvka scales with the number of fork-join worker threads, on a random graph with
+// average degree 20. Pool sizes above the core count measure oversubscription.
+// Compare against single-threaded Kruskal with MstBenchmark -p family=SPARSE -p algorithm=KRUSKAL.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ParallelMstBenchmark {
+	@Param({"1", "2", "4", "8", "16"})
+	int threads;
+
+	@Param({"1000000", "10000000"})
+	int edges;
+
+	private Graph graph;
+	private ForkJoinPool pool;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		graph = GraphFamily.randomGraph(Math.max(2, edges / 10), edges, 7);
+		pool = new ForkJoinPool(threads);
+		// Every pool size must find the tree Kruskal finds
+		if (totalWeight(ParallelMst.boruvka(graph, pool, MstMonitor.NONE)) != totalWeight(Mst.kruskal(graph))) {
+			throw new IllegalStateException("Boruvka weight differs from Kruskal with " + threads + " threads");
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public int[] boruvka() {
+		return ParallelMst.boruvka(graph, pool, MstMonitor.NONE);
+	}
+
+	private long totalWeight(int[] edges) {
+		long total = 0;
+		for (int e : edges) {
+			total += graph.weight(e);
+		}
+		return total;
+	}
+}
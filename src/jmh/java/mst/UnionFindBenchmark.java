@@ -0,0 +1,83 @@
+package mst;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The array-backed UnionFind against the original HashMap<String,String> version from LegacyMst.
+// Each invocation builds the structure over n elements, then performs n random unions and 2n random finds.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-Xss64m"})
+public class UnionFindBenchmark {
+	@Param({"100000", "1000000", "10000000"})
+	int size;
+
+	// 4n element ids: the first half drive unions, the second half drive finds
+	private int[] pairs;
+	private String[] keys;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		Random random = new Random(42);
+		pairs = new int[4 * size];
+		for (int i = 0; i < pairs.length; i++) {
+			pairs[i] = random.nextInt(size);
+		}
+		keys = new String[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = Integer.toString(i);
+		}
+	}
+
+	@Benchmark
+	public long array() {
+		UnionFind uf = new UnionFind(size);
+		int half = pairs.length / 2;
+		for (int i = 0; i < half; i += 2) {
+			uf.union(pairs[i], pairs[i + 1]);
+		}
+		long sink = 0;
+		for (int i = half; i < pairs.length; i++) {
+			sink += uf.find(pairs[i]);
+		}
+		return sink;
+	}
+
+	@Benchmark
+	public long map() {
+		Map<String, String> parent = new HashMap<>();
+		for (String key : keys) {
+			parent.put(key, key);
+		}
+		int half = pairs.length / 2;
+		for (int i = 0; i < half; i += 2) {
+			String rootSource = LegacyMst.find(parent, keys[pairs[i]]);
+			String rootTarget = LegacyMst.find(parent, keys[pairs[i + 1]]);
+			if (!rootSource.equals(rootTarget)) {
+				LegacyMst.union(parent, rootSource, rootTarget);
+			}
+		}
+		long sink = 0;
+		for (int i = half; i < pairs.length; i++) {
+			sink += LegacyMst.find(parent, keys[pairs[i]]).length();
+		}
+		return sink;
+	}
+}
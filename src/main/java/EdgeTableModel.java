@@ -0,0 +1,102 @@
+import javax.swing.table.AbstractTableModel;
+import mst.*;
+
+// Table of the edges of a MutableGraph, one row per edge id, with an editable weight column.
+// Weights are shown and typed as text, so the same column holds integer and double weights.
+// Cells are read straight from the graph, so a JTable over it only touches the rows it paints.
+final class EdgeTableModel extends AbstractTableModel {
+	private static final String[] COLUMNS = {"Edge", "Weight"};
+
+	private MutableGraph graph;
+	private final Runnable onWeightChange;
+
+	EdgeTableModel(MutableGraph graph, Runnable onWeightChange) {
+		this.graph = graph;
+		this.onWeightChange = onWeightChange;
+	}
+
+	MutableGraph graph() {
+		return graph;
+	}
+
+	void setGraph(MutableGraph graph) {
+		this.graph = graph;
+		fireTableDataChanged();
+	}
+
+	@Override
+	public int getRowCount() {
+		return graph.edgeCount();
+	}
+
+	@Override
+	public int getColumnCount() {
+		return COLUMNS.length;
+	}
+
+	@Override
+	public String getColumnName(int column) {
+		return COLUMNS[column];
+	}
+
+	@Override
+	public Class<?> getColumnClass(int column) {
+		return String.class;
+	}
+
+	@Override
+	public boolean isCellEditable(int row, int column) {
+		return column == 1;
+	}
+
+	@Override
+	public Object getValueAt(int row, int column) {
+		if (column == 0) {
+			return graph.name(graph.source(row)) + " - " + graph.name(graph.target(row));
+		}
+		return graph.weightText(row);
+	}
+
+	@Override
+	public void setValueAt(Object value, int row, int column) {
+		if (column != 1 || value == null) {
+			return;
+		}
+		Number weight;
+		try {
+			weight = parseWeight(value.toString());
+		} catch (NumberFormatException e) {
+			return;
+		}
+		boolean wasDouble = graph.hasDoubleWeights();
+		long before = graph.weight(row);
+		if (weight instanceof Double) {
+			graph.setWeight(row, weight.doubleValue());
+		} else {
+			graph.setWeight(row, weight.longValue());
+		}
+		if (graph.hasDoubleWeights() != wasDouble) {
+			// Every weight is now shown as a double
+			fireTableDataChanged();
+		} else if (graph.weight(row) != before) {
+			fireTableCellUpdated(row, column);
+		} else {
+			return;
+		}
+		onWeightChange.run();
+	}
+
+	// A typed weight: a Long for whole numbers, otherwise a Double, which switches the graph to double weights
+	static Number parseWeight(String text) {
+		text = text.trim();
+		try {
+			return Long.parseLong(text);
+		} catch (NumberFormatException e) {
+			double weight = Double.parseDouble(text);
+			if (Double.isNaN(weight)) {
+				throw new NumberFormatException("NaN is not a weight");
+			}
+			return weight;
+		}
+	}
+}
@@ -0,0 +1,1090 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import javax.swing.border.EmptyBorder;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import java.util.*;
+import java.util.List;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import mst.*;
+
+public class GraphGUI extends JFrame {
+	// The graph being edited; the edge table reads and writes it directly
+	private MutableGraph model;
+	private EdgeTableModel edgeTableModel;
+	private JTable edgeTable;
+	private CardLayout cardLayout;
+	private JPanel mainPanel;
+	private JPanel inputPanel;
+	private JPanel outputPanel;
+	private Graph graph;
+	// The MST run or file open in progress; CANCEL stops it
+	private SwingWorker<?, String> worker;
+	private LayoutWorker layoutWorker;
+	// Kept across DYNAMIC runs; workers only touch it while holding its lock
+	private final DynamicMst dynamicMst = new DynamicMst(0);
+	private JButton startButton;
+	private JButton openButton;
+	private JButton cancelButton;
+	private JProgressBar progressBar;
+	private JLabel statusLabel;
+	private JCheckBox recordStepsBox;
+	// Steps of the run on the output page and the timer playing them back
+	private StepLog stepLog;
+	private javax.swing.Timer replayTimer;
+	// Output page, built once and refilled by showOutput: the result view with the replay controls of a
+	// recorded run below it, and the summary of the run shown
+	private GraphView resultView;
+	private JPanel resultGraphPanel;
+	private JPanel replayControls;
+	private JTextArea resultArea;
+	private JButton showEdgesButton;
+	private MstResult shownResult;
+	private RunMetrics shownMetrics;
+	private final ResultCache resultCache = new ResultCache(RESULT_CACHE_SIZE, RESULT_CACHE_EDGES);
+
+	private static final String[] EDGES = {
+		"a - b", "a - h", "b - c", "b - h",
+		"h - i", "h - g", "c - i", "i - g",
+		"c - d", "c - f", "g - f", "d - e",
+		"d - f", "f - e"
+	};
+
+	// Centre of each vertex of the sample graph, in the order of NODE_NAMES
+	private static final String NODE_NAMES = "abcdefghi";
+	private static final float[][] NODE_CENTERS = {
+		{65, 115}, {115, 65}, {215, 65}, {315, 65}, {365, 115},
+		{315, 165}, {215, 165}, {115, 165}, {165, 115}
+	};
+	// Spacing of the grid that vertices without known positions start on, and the layout's edge length
+	private static final float GRID_SPACING = 50;
+	// Nanoseconds between two intermediate layouts handed to the view
+	private static final long LAYOUT_PUBLISH_INTERVAL = 250_000_000L;
+	// Replay playback: milliseconds per tick and the choice of steps per tick
+	private static final int REPLAY_TICK = 40;
+	private static final Integer[] REPLAY_SPEEDS = {1, 10, 100, 1000, 10000, 100000};
+	// Finished runs kept for repeated STARTs on the same graph and algorithm
+	private static final int RESULT_CACHE_SIZE = 16;
+	// Edges their graphs may hold together, e.g. three snapshots of a 10^7-edge graph
+	private static final long RESULT_CACHE_EDGES = 1L << 25;
+
+	private GraphView graphView;
+	// Positions of the vertices of the displayed graph, shared by the input and result views
+	private float[] nodeX;
+	private float[] nodeY;
+	private Graph layoutGraph;
+	// Time spent building or loading the current graph, reported as the first phase of the next run
+	private long graphBuildNanos;
+
+	public GraphGUI() {
+		model = sampleGraph();
+
+		setTitle("Graph Algorithm Visualizer");
+		setSize(800, 500);
+		setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+		// Main Panel with CardLayout to switch between input and output pages
+		cardLayout = new CardLayout();
+		mainPanel = new JPanel(cardLayout);
+
+		// Initialize the input and output panels
+		createInputPanel();
+		createOutputPanel();
+
+		// Add input and output panels to main panel
+		mainPanel.add(inputPanel, "Input");
+		mainPanel.add(outputPanel, "Output");
+
+		add(mainPanel);
+		setVisible(true);
+	}
+
+	private void createInputPanel() {
+		inputPanel = new JPanel(new BorderLayout(10, 10));
+		inputPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+
+		// Left Panel - Edge table with an editable weight per edge, and buttons to edit the graph.
+		// The table only renders the rows in view, so it stays responsive with any number of edges.
+		JPanel weightsPanel = new JPanel(new BorderLayout());
+		weightsPanel.setBorder(BorderFactory.createTitledBorder("Enter Edge Weights"));
+		edgeTableModel = new EdgeTableModel(model, new Runnable() {
+			@Override
+			public void run() {
+				showGraph();
+			}
+		});
+		edgeTable = new JTable(edgeTableModel);
+		edgeTable.setFillsViewportHeight(true);
+		// Keep the editor open on a weight that is not a number; a fraction turns the graph's weights into doubles
+		edgeTable.setDefaultEditor(String.class, new DefaultCellEditor(new JTextField()) {
+			@Override
+			public boolean stopCellEditing() {
+				try {
+					EdgeTableModel.parseWeight(getCellEditorValue().toString());
+				} catch (NumberFormatException e) {
+					Toolkit.getDefaultToolkit().beep();
+					return false;
+				}
+				return super.stopCellEditing();
+			}
+		});
+		JScrollPane tableScroll = new JScrollPane(edgeTable);
+		tableScroll.setPreferredSize(new Dimension(180, 300));
+		weightsPanel.add(tableScroll, BorderLayout.CENTER);
+		weightsPanel.add(createEditPanel(), BorderLayout.SOUTH);
+
+		// Center Panel - Displaying Graph Structure, pan with drag and zoom with the wheel
+		graphView = new GraphView(false);
+		graphView.setPreferredSize(new Dimension(500, 300));
+		graphView.setBorder(BorderFactory.createTitledBorder("Graph"));
+		showGraph();
+
+		// Right Panel - Algorithm Selection and Controls
+		JPanel controlPanel = new JPanel();
+		controlPanel.setLayout(new BoxLayout(controlPanel, BoxLayout.Y_AXIS));
+
+		JPanel algorithmPanel = new JPanel();
+		algorithmPanel.setBorder(BorderFactory.createTitledBorder("Algorithms"));
+		JRadioButton kruskalButton = new JRadioButton("Kruskal's");
+		JRadioButton primButton = new JRadioButton("Prim's");
+		JRadioButton primEagerButton = new JRadioButton("Prim's (eager)");
+		JRadioButton boruvkaButton = new JRadioButton("Bor\u016fvka (parallel)");
+		JRadioButton dynamicButton = new JRadioButton("Dynamic (incremental)");
+		JRadioButton forestButton = new JRadioButton("Forest (parallel Prim)");
+		ButtonGroup algorithmGroup = new ButtonGroup();
+		algorithmGroup.add(kruskalButton);
+		algorithmGroup.add(primButton);
+		algorithmGroup.add(primEagerButton);
+		algorithmGroup.add(boruvkaButton);
+		algorithmGroup.add(dynamicButton);
+		algorithmGroup.add(forestButton);
+		algorithmPanel.add(kruskalButton);
+		algorithmPanel.add(primButton);
+		algorithmPanel.add(primEagerButton);
+		algorithmPanel.add(boruvkaButton);
+		algorithmPanel.add(dynamicButton);
+		algorithmPanel.add(forestButton);
+		// Kruskal and Prim can record every step for replay on the output page
+		recordStepsBox = new JCheckBox("Record steps");
+		algorithmPanel.add(recordStepsBox);
+
+		// Button Panel
+		JPanel buttonPanel = new JPanel();
+		startButton = new JButton("START");
+		JButton refreshButton = new JButton("REFRESH");
+		JButton saveButton = new JButton("SAVE"); // New SAVE button
+		openButton = new JButton("OPEN");
+		buttonPanel.add(startButton);
+		buttonPanel.add(refreshButton);
+		buttonPanel.add(saveButton); // Add SAVE button to the panel
+		buttonPanel.add(openButton);
+
+		// Progress Panel - shown while an algorithm runs in the background
+		JPanel progressPanel = new JPanel();
+		progressPanel.setLayout(new BoxLayout(progressPanel, BoxLayout.Y_AXIS));
+		progressPanel.setBorder(BorderFactory.createTitledBorder("Progress"));
+		progressBar = new JProgressBar(0, 100);
+		progressBar.setStringPainted(true);
+		statusLabel = new JLabel("Idle");
+		cancelButton = new JButton("CANCEL");
+		cancelButton.setEnabled(false);
+		progressPanel.add(progressBar);
+		progressPanel.add(statusLabel);
+		progressPanel.add(cancelButton);
+
+		controlPanel.add(algorithmPanel);
+		controlPanel.add(Box.createVerticalStrut(20)); // Spacer
+		controlPanel.add(buttonPanel);
+		controlPanel.add(progressPanel);
+
+		// Add action listeners for buttons
+		startButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				if (collectWeights()) {
+					MstAlgorithm selectedAlgorithm = getSelectedAlgorithm(kruskalButton, primButton, primEagerButton, boruvkaButton,
+							dynamicButton, forestButton);
+					if (selectedAlgorithm != null) {
+						startRun(selectedAlgorithm);
+					}
+				}
+			}
+		});
+
+		cancelButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				if (worker != null) {
+					worker.cancel(true);
+				}
+			}
+		});
+
+		refreshButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				refreshWeights();
+				inputPanel.repaint(); // Refresh input panel to clear weights
+			}
+		});
+
+		saveButton.addActionListener(new ActionListener() { // Action for SAVE button
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				if (collectWeights()) {
+					JFileChooser chooser = new JFileChooser();
+					chooser.setDialogTitle("Save Graph (binary format)");
+					if (chooser.showSaveDialog(inputPanel) == JFileChooser.APPROVE_OPTION) {
+						saveGraph(chooser.getSelectedFile().toPath());
+					}
+					inputPanel.repaint(); // Refresh input panel to show weights
+				}
+			}
+		});
+
+		openButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				JFileChooser chooser = new JFileChooser();
+				chooser.setDialogTitle("Open Graph");
+				if (chooser.showOpenDialog(inputPanel) == JFileChooser.APPROVE_OPTION) {
+					openGraph(chooser.getSelectedFile().toPath());
+				}
+			}
+		});
+
+		inputPanel.add(weightsPanel, BorderLayout.WEST);
+		inputPanel.add(graphView, BorderLayout.CENTER);
+		inputPanel.add(controlPanel, BorderLayout.EAST);
+	}
+
+	private void createOutputPanel() {
+		outputPanel = new JPanel(new BorderLayout());
+
+		// The graph view highlighting the MST edges over the rest of the graph
+		resultView = new GraphView(true);
+		resultView.setPreferredSize(new Dimension(500, 300));
+		resultView.setBorder(BorderFactory.createTitledBorder("Graph"));
+		resultGraphPanel = new JPanel(new BorderLayout());
+		resultGraphPanel.add(resultView, BorderLayout.CENTER);
+
+		JPanel outputContainer = new JPanel(new BorderLayout());
+		outputContainer.add(resultGraphPanel, BorderLayout.WEST);
+		outputContainer.add(createResultPanel(), BorderLayout.CENTER);
+		outputPanel.add(outputContainer, BorderLayout.CENTER);
+
+		// Add "Go Back" button
+		JPanel bottomPanel = new JPanel();
+		JButton goBackButton = new JButton("Go Back");
+		goBackButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				cardLayout.show(mainPanel, "Input"); // Switch back to input page
+			}
+		});
+		bottomPanel.add(goBackButton);
+
+		outputPanel.add(bottomPanel, BorderLayout.SOUTH);
+	}
+
+	// Snapshot of the graph being edited; cheap while only weights changed since the last one
+	private Graph displayedGraph() {
+		return model.toGraph();
+	}
+
+	// The sample graph with zero weights, edge ids in the order of EDGES
+	private static MutableGraph sampleGraph() {
+		MutableGraph sample = new MutableGraph(NODE_NAMES.length(), EDGES.length);
+		for (String edge : EDGES) {
+			String[] nodes = edge.split(" - ");
+			sample.addEdge(nodes[0], nodes[1], 0);
+		}
+		return sample;
+	}
+
+	// Buttons that add and remove edges and vertices of the model
+	private JPanel createEditPanel() {
+		JButton addEdgeButton = new JButton("Add Edge");
+		JButton removeEdgeButton = new JButton("Remove Edges");
+		JButton addVertexButton = new JButton("Add Vertex");
+		JButton removeVertexButton = new JButton("Remove Vertex");
+
+		addEdgeButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				String input = JOptionPane.showInputDialog(inputPanel, "Edge as \"source target weight\":", "Add Edge",
+						JOptionPane.PLAIN_MESSAGE);
+				if (input == null) {
+					return;
+				}
+				String[] parts = input.trim().split("\\s+");
+				try {
+					if (parts.length != 3) {
+						throw new NumberFormatException();
+					}
+					Number weight = EdgeTableModel.parseWeight(parts[2]);
+					boolean wasDouble = model.hasDoubleWeights();
+					int edge = weight instanceof Double ? model.addEdge(parts[0], parts[1], weight.doubleValue())
+							: model.addEdge(parts[0], parts[1], weight.longValue());
+					if (model.hasDoubleWeights() != wasDouble) {
+						edgeTableModel.fireTableDataChanged();
+					} else {
+						edgeTableModel.fireTableRowsInserted(edge, edge);
+					}
+					showGraph();
+				} catch (NumberFormatException ex) {
+					JOptionPane.showMessageDialog(inputPanel, "Please enter two vertex names and a numeric weight.", "Input Error",
+							JOptionPane.ERROR_MESSAGE);
+				}
+			}
+		});
+
+		removeEdgeButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				cancelEdit();
+				// Highest rows first: each removal moves the last edge into the freed id, which is then already handled
+				int[] rows = edgeTable.getSelectedRows();
+				Arrays.sort(rows);
+				for (int i = rows.length - 1; i >= 0; i--) {
+					model.removeEdge(rows[i]);
+				}
+				if (rows.length > 0) {
+					edgeTableModel.fireTableDataChanged();
+					showGraph();
+				}
+			}
+		});
+
+		addVertexButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				String name = JOptionPane.showInputDialog(inputPanel, "Vertex name:", "Add Vertex", JOptionPane.PLAIN_MESSAGE);
+				if (name == null || name.trim().isEmpty()) {
+					return;
+				}
+				if (model.vertexId(name.trim()) >= 0) {
+					JOptionPane.showMessageDialog(inputPanel, "Vertex " + name.trim() + " already exists.", "Input Error",
+							JOptionPane.ERROR_MESSAGE);
+					return;
+				}
+				model.addVertex(name.trim());
+				showGraph();
+			}
+		});
+
+		removeVertexButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				String name = JOptionPane.showInputDialog(inputPanel, "Vertex name:", "Remove Vertex", JOptionPane.PLAIN_MESSAGE);
+				if (name == null) {
+					return;
+				}
+				int vertex = model.vertexId(name.trim());
+				if (vertex < 0) {
+					JOptionPane.showMessageDialog(inputPanel, "No vertex named " + name.trim() + ".", "Input Error",
+							JOptionPane.ERROR_MESSAGE);
+					return;
+				}
+				cancelEdit();
+				model.removeVertex(vertex);
+				edgeTableModel.fireTableDataChanged();
+				showGraph();
+			}
+		});
+
+		JPanel editPanel = new JPanel(new GridLayout(2, 2));
+		editPanel.add(addEdgeButton);
+		editPanel.add(removeEdgeButton);
+		editPanel.add(addVertexButton);
+		editPanel.add(removeVertexButton);
+		return editPanel;
+	}
+
+	// Drop a weight being typed into a row that is about to move or disappear
+	private void cancelEdit() {
+		if (edgeTable.isEditing()) {
+			edgeTable.getCellEditor().cancelCellEditing();
+		}
+	}
+
+	// Push the current graph into the input view. Positions are only recomputed when the vertices changed,
+	// so a weight edit leaves the view's spatial index and zoom untouched and an edge edit keeps the zoom.
+	private void showGraph() {
+		Graph shown = displayedGraph();
+		if (layoutGraph == null || (!shown.sharesTopology(layoutGraph)
+				&& (layoutGraph.vertexCount() != shown.vertexCount() || !sameNames(layoutGraph, shown)))) {
+			layoutVertices(shown);
+		}
+		layoutGraph = shown;
+		graphView.setGraph(shown, nodeX, nodeY);
+	}
+
+	private static boolean sameNames(Graph a, Graph b) {
+		for (int v = 0; v < a.vertexCount(); v++) {
+			if (!a.name(v).equals(b.name(v))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Sample vertices keep their drawing positions. After an edit, vertices that were shown before keep their
+	// positions and new ones are placed next to them. Any other graph starts on a square grid in id order
+	// and is then laid out by a force-directed layout in the background.
+	private void layoutVertices(Graph shown) {
+		if (layoutWorker != null) {
+			layoutWorker.cancel(true);
+			layoutWorker = null;
+		}
+		int n = shown.vertexCount();
+		float[] x = new float[n];
+		float[] y = new float[n];
+		boolean sample = n == NODE_CENTERS.length;
+		for (int v = 0; v < n && sample; v++) {
+			String name = shown.name(v);
+			sample = name.length() == 1 && NODE_NAMES.indexOf(name.charAt(0)) >= 0;
+		}
+		if (sample) {
+			for (int v = 0; v < n; v++) {
+				float[] center = NODE_CENTERS[NODE_NAMES.indexOf(shown.name(v).charAt(0))];
+				x[v] = center[0];
+				y[v] = center[1];
+			}
+		} else if (!keepPositions(shown, x, y)) {
+			int side = (int) Math.ceil(Math.sqrt(n));
+			for (int v = 0; v < n; v++) {
+				x[v] = GRID_SPACING * (1 + v % side);
+				y[v] = GRID_SPACING * (1 + v / side);
+			}
+			if (n > 1) {
+				layoutWorker = new LayoutWorker(shown, x.clone(), y.clone());
+				layoutWorker.execute();
+			}
+		}
+		nodeX = x;
+		nodeY = y;
+	}
+
+	// Copy the positions of the vertices of the previous layout that are still shown, matched by name.
+	// A new vertex goes beside the centre of its placed neighbours, or into a column right of the drawing.
+	// Returns false if no vertex was placed before.
+	private boolean keepPositions(Graph shown, float[] x, float[] y) {
+		if (layoutGraph == null || nodeX == null) {
+			return false;
+		}
+		Map<String, Integer> previous = new HashMap<>();
+		for (int v = 0; v < layoutGraph.vertexCount(); v++) {
+			previous.put(layoutGraph.name(v), v);
+		}
+		int n = shown.vertexCount();
+		boolean[] placed = new boolean[n];
+		int kept = 0;
+		float maxX = 0;
+		float minY = Float.MAX_VALUE;
+		for (int v = 0; v < n; v++) {
+			Integer old = previous.get(shown.name(v));
+			if (old != null) {
+				x[v] = nodeX[old];
+				y[v] = nodeY[old];
+				placed[v] = true;
+				kept++;
+				maxX = Math.max(maxX, x[v]);
+				minY = Math.min(minY, y[v]);
+			}
+		}
+		if (kept == 0) {
+			return false;
+		}
+		int column = 0;
+		for (int v = 0; v < n; v++) {
+			if (placed[v]) {
+				continue;
+			}
+			float sumX = 0;
+			float sumY = 0;
+			int neighbours = 0;
+			for (int e = 0; e < shown.edgeCount() && neighbours == 0; e++) {
+				if (shown.source(e) == v || shown.target(e) == v) {
+					int w = shown.opposite(e, v);
+					if (placed[w]) {
+						sumX += x[w];
+						sumY += y[w];
+						neighbours++;
+					}
+				}
+			}
+			if (neighbours > 0) {
+				x[v] = sumX / neighbours + GRID_SPACING;
+				y[v] = sumY / neighbours + GRID_SPACING;
+			} else {
+				x[v] = maxX + GRID_SPACING * 2;
+				y[v] = minY + GRID_SPACING * column++;
+			}
+			placed[v] = true;
+		}
+		return true;
+	}
+
+	// Snapshot the edited graph for the algorithms, committing a weight still being typed into the table.
+	// While only weights changed the snapshot shares the topology and sorted edge order of the previous one.
+	private boolean collectWeights() {
+		if (edgeTable.isEditing() && !edgeTable.getCellEditor().stopCellEditing()) {
+			JOptionPane.showMessageDialog(this, "Please enter valid numeric weights.", "Input Error", JOptionPane.ERROR_MESSAGE);
+			return false;
+		}
+		long start = System.nanoTime();
+		graph = model.toGraph();
+		graphBuildNanos = System.nanoTime() - start;
+		showGraph();
+		return true;
+	}
+
+	// Persist the collected graph in the binary GraphFile format
+	private void saveGraph(Path file) {
+		try {
+			GraphFile.write(graph, file);
+			JOptionPane.showMessageDialog(inputPanel, "Graph saved to " + file, "Save", JOptionPane.INFORMATION_MESSAGE);
+		} catch (IOException e) {
+			JOptionPane.showMessageDialog(inputPanel, "Cannot save graph: " + e.getMessage(), "Save Error", JOptionPane.ERROR_MESSAGE);
+		}
+	}
+
+	// Load a binary or text graph file on a background worker; see OpenWorker
+	private void openGraph(Path file) {
+		worker = new OpenWorker(file);
+		setRunning(true);
+		statusLabel.setText("Opening " + file.getFileName() + "...");
+		worker.execute();
+	}
+
+	// Make a loaded graph the first snapshot of the edge table.
+	// A point file loads as the candidate edges of its Euclidean MST, drawn at the points' coordinates.
+	private void showLoaded(Graph loaded, EuclideanMst.Points points, long loadNanos) {
+		cancelEdit();
+		model = MutableGraph.of(loaded);
+		edgeTableModel.setGraph(model);
+		graph = loaded;
+		graphBuildNanos = loadNanos;
+		statusLabel.setText(loaded.vertexCount() + " vertices, " + loaded.edgeCount() + " edges loaded");
+		if (points != null) {
+			placeAtPoints(loaded, points);
+		}
+		showGraph();
+		inputPanel.repaint();
+	}
+
+	// Draw the vertices at their coordinates, scaled to the size of the grid a graph of that size starts on
+	// and with y pointing up
+	private void placeAtPoints(Graph loaded, EuclideanMst.Points points) {
+		if (layoutWorker != null) {
+			layoutWorker.cancel(true);
+			layoutWorker = null;
+		}
+		int n = points.count();
+		double[] px = points.x();
+		double[] py = points.y();
+		double minX = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE;
+		double minY = Double.MAX_VALUE;
+		double maxY = -Double.MAX_VALUE;
+		for (int v = 0; v < n; v++) {
+			minX = Math.min(minX, px[v]);
+			maxX = Math.max(maxX, px[v]);
+			minY = Math.min(minY, py[v]);
+			maxY = Math.max(maxY, py[v]);
+		}
+		double span = Math.max(Math.max(maxX - minX, maxY - minY), Double.MIN_NORMAL);
+		double scale = GRID_SPACING * Math.max(Math.ceil(Math.sqrt(n)) - 1, 1) / span;
+		float[] x = new float[n];
+		float[] y = new float[n];
+		for (int v = 0; v < n; v++) {
+			x[v] = (float) (GRID_SPACING + (px[v] - minX) * scale);
+			y[v] = (float) (GRID_SPACING + (maxY - py[v]) * scale);
+		}
+		nodeX = x;
+		nodeY = y;
+		layoutGraph = loaded;
+	}
+
+	private void refreshWeights() {
+		cancelEdit();
+		model = sampleGraph();
+		edgeTableModel.setGraph(model);
+		graph = null;
+		showGraph();
+	}
+
+	// Get selected algorithm
+	private MstAlgorithm getSelectedAlgorithm(JRadioButton kruskalButton, JRadioButton primButton, JRadioButton primEagerButton,
+	                                          JRadioButton boruvkaButton, JRadioButton dynamicButton, JRadioButton forestButton) {
+		if (kruskalButton.isSelected()) {
+			return MstAlgorithm.KRUSKAL;
+		} else if (primButton.isSelected()) {
+			return MstAlgorithm.PRIM;
+		} else if (primEagerButton.isSelected()) {
+			return MstAlgorithm.PRIM_EAGER;
+		} else if (boruvkaButton.isSelected()) {
+			return MstAlgorithm.BORUVKA;
+		} else if (dynamicButton.isSelected()) {
+			return MstAlgorithm.DYNAMIC;
+		} else if (forestButton.isSelected()) {
+			return MstAlgorithm.FOREST;
+		}
+		return null;
+	}
+
+	// Start the selected algorithm on a background worker, recording its steps to a spill file if asked to.
+	// A run of the same algorithm on a graph with the same content is shown from the cache instead,
+	// unless its steps are to be recorded.
+	private void startRun(MstAlgorithm algorithm) {
+		boolean record = recordStepsBox.isSelected() && algorithm.recordsSteps();
+		if (!record) {
+			ResultCache.Entry cached = resultCache.get(graph, algorithm);
+			if (cached != null) {
+				progressBar.setValue(100);
+				statusLabel.setText("Done (cached)");
+				showOutput(cached.result, null, cached.metrics);
+				return;
+			}
+		}
+		StepLog log = null;
+		if (record) {
+			try {
+				log = StepLog.spilling(null);
+			} catch (IOException e) {
+				JOptionPane.showMessageDialog(this, "Cannot record steps: " + e.getMessage(), "Record Error", JOptionPane.ERROR_MESSAGE);
+			}
+		}
+		worker = new MstWorker(graph, algorithm, log);
+		setRunning(true);
+		worker.execute();
+	}
+
+	private void setRunning(boolean running) {
+		startButton.setEnabled(!running);
+		openButton.setEnabled(!running);
+		cancelButton.setEnabled(running);
+		if (running) {
+			progressBar.setValue(0);
+			statusLabel.setText("Running...");
+		}
+	}
+
+	// Runs an algorithm off the Event Dispatch Thread, streaming progress into the control panel
+	private class MstWorker extends SwingWorker<MstResult, String> implements MstMonitor {
+		private final Graph graph;
+		private final MstAlgorithm algorithm;
+		private final StepLog log;
+		private final RunMetrics metrics = new RunMetrics();
+
+		MstWorker(Graph graph, MstAlgorithm algorithm, StepLog log) {
+			this.graph = graph;
+			this.algorithm = algorithm;
+			this.log = log;
+			metrics.addPhase("graph build", graphBuildNanos);
+		}
+
+		@Override
+		public RunMetrics metrics() {
+			return metrics;
+		}
+
+		@Override
+		protected MstResult doInBackground() {
+			// The dynamic tree outlives the run: only weights changed since the last START are applied.
+			// CANCEL re-enables START before a cancelled update has reached its next checkpoint, so a new run
+			// waits here for it to let go of the tree; an update stops between weight changes, leaving it whole.
+			if (algorithm == MstAlgorithm.DYNAMIC) {
+				synchronized (dynamicMst) {
+					return dynamicMst.update(graph, this);
+				}
+			}
+			return algorithm.run(graph, this, log);
+		}
+
+		@Override
+		public void progress(int accepted, long scanned, long total) {
+			int percent = total == 0 ? 100 : (int) Math.min(100, scanned * 100 / total);
+			setProgress(percent);
+			publish(accepted + " edges accepted, " + percent + "% scanned");
+		}
+
+		@Override
+		protected void process(List<String> chunks) {
+			// A cancelled run publishes until its next checkpoint; the run started after it owns the progress bar
+			if (isCancelled() || worker != this) {
+				return;
+			}
+			progressBar.setValue(getProgress());
+			statusLabel.setText(chunks.get(chunks.size() - 1));
+		}
+
+		@Override
+		protected void done() {
+			setRunning(false);
+			if (isCancelled()) {
+				statusLabel.setText("Cancelled");
+				closeLog(log);
+				return;
+			}
+			try {
+				MstResult result = get();
+				progressBar.setValue(100);
+				statusLabel.setText("Done");
+				resultCache.put(result, metrics);
+				showOutput(result, log, metrics);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				closeLog(log);
+				if (e.getCause() instanceof CancellationException) {
+					statusLabel.setText("Cancelled");
+				} else {
+					statusLabel.setText("Failed");
+					JOptionPane.showMessageDialog(GraphGUI.this, "Algorithm failed: " + e.getCause(), "Error", JOptionPane.ERROR_MESSAGE);
+				}
+			}
+		}
+	}
+
+	// Reads a graph file off the Event Dispatch Thread. A point file also runs its Euclidean MST here, which takes
+	// a while for millions of points; its Boruvka rounds are reported as progress and CANCEL stops it between them.
+	private class OpenWorker extends SwingWorker<Graph, String> implements MstMonitor {
+		private final Path file;
+		private EuclideanMst.Points points;
+		private long loadNanos;
+
+		OpenWorker(Path file) {
+			this.file = file;
+		}
+
+		@Override
+		protected Graph doInBackground() throws IOException {
+			long start = System.nanoTime();
+			Graph loaded;
+			if (GraphLoader.detect(file) == GraphLoader.Format.POINTS) {
+				points = GraphLoader.readPoints(file);
+				publish("Finding the Euclidean MST of " + points.count() + " points...");
+				loaded = EuclideanMst.candidateGraph(points, this);
+			} else {
+				loaded = GraphLoader.load(file);
+			}
+			loadNanos = System.nanoTime() - start;
+			return loaded;
+		}
+
+		@Override
+		public void progress(int accepted, long scanned, long total) {
+			int percent = total == 0 ? 100 : (int) Math.min(100, scanned * 100 / total);
+			setProgress(percent);
+			publish(accepted + " of " + total + " tree edges found");
+		}
+
+		@Override
+		protected void process(List<String> chunks) {
+			if (isCancelled() || worker != this) {
+				return;
+			}
+			progressBar.setValue(getProgress());
+			statusLabel.setText(chunks.get(chunks.size() - 1));
+		}
+
+		@Override
+		protected void done() {
+			setRunning(false);
+			if (isCancelled()) {
+				statusLabel.setText("Cancelled");
+				return;
+			}
+			try {
+				Graph loaded = get();
+				progressBar.setValue(100);
+				showLoaded(loaded, points, loadNanos);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof CancellationException) {
+					statusLabel.setText("Cancelled");
+					return;
+				}
+				statusLabel.setText("Open failed");
+				String message = cause instanceof IOException || cause instanceof IllegalArgumentException ? cause.getMessage() : cause.toString();
+				JOptionPane.showMessageDialog(inputPanel, "Cannot open graph: " + message, "Open Error", JOptionPane.ERROR_MESSAGE);
+			}
+		}
+	}
+
+	// Runs the force-directed layout off the Event Dispatch Thread. Intermediate positions are published
+	// a few times a second together with their spatial index, so the view only swaps them in.
+	private class LayoutWorker extends SwingWorker<Void, SpatialIndex> {
+		private final Graph graph;
+		private final float[] startX;
+		private final float[] startY;
+
+		LayoutWorker(Graph graph, float[] startX, float[] startY) {
+			this.graph = graph;
+			this.startX = startX;
+			this.startY = startY;
+		}
+
+		@Override
+		protected Void doInBackground() {
+			ForceLayout layout = new ForceLayout(graph, startX, startY, GRID_SPACING);
+			long published = System.nanoTime();
+			while (!isCancelled() && layout.step()) {
+				if (System.nanoTime() - published >= LAYOUT_PUBLISH_INTERVAL) {
+					publish(snapshot(layout));
+					published = System.nanoTime();
+				}
+			}
+			if (!isCancelled()) {
+				publish(snapshot(layout));
+			}
+			return null;
+		}
+
+		private SpatialIndex snapshot(ForceLayout layout) {
+			float[] x = new float[graph.vertexCount()];
+			float[] y = new float[graph.vertexCount()];
+			layout.positions(x, y);
+			return new SpatialIndex(graph, x, y);
+		}
+
+		@Override
+		protected void process(List<SpatialIndex> chunks) {
+			if (isCancelled() || layoutWorker != this) {
+				return;
+			}
+			SpatialIndex latest = chunks.get(chunks.size() - 1);
+			// The shown graph may have been edited since the layout started; showGraph keeps the worker
+			// while the vertices stay the same, so only an edge edit needs the index rebuilt here
+			if (!latest.graph().sharesTopology(layoutGraph)) {
+				latest = new SpatialIndex(layoutGraph, latest.x(), latest.y());
+			}
+			nodeX = latest.x();
+			nodeY = latest.y();
+			graphView.setLayout(latest);
+		}
+	}
+
+	// Deletes the spill file of a log that will not be replayed
+	private static void closeLog(StepLog log) {
+		if (log != null) {
+			try {
+				log.close();
+			} catch (IOException e) {
+				// Only the temporary file is lost
+			}
+		}
+	}
+
+	// Display output, with replay controls when the run recorded its steps. The components of the output page
+	// are reused, so showing a result again only swaps what they display; the view keeps its index and zoom
+	// while the graph's layout is unchanged.
+	private void showOutput(MstResult result, StepLog log, RunMetrics metrics) {
+		if (replayTimer != null) {
+			replayTimer.stop();
+			replayTimer = null;
+		}
+		closeLog(stepLog);
+		stepLog = log;
+		shownResult = result;
+		shownMetrics = metrics;
+
+		resultView.setGraph(result.graph(), nodeX, nodeY);
+		if (replayControls != null) {
+			resultGraphPanel.remove(replayControls);
+			replayControls = null;
+		}
+		if (log != null) {
+			replayControls = createReplayControls(resultView, new StepReplay(result.graph(), log));
+			resultGraphPanel.add(replayControls, BorderLayout.SOUTH);
+		} else {
+			resultView.setReplay(null);
+			resultView.setResult(result);
+		}
+		resultArea.setText(result.summary() + "\n\n" + metrics.format());
+		resultArea.setCaretPosition(0);
+		showEdgesButton.setEnabled(true);
+
+		resultGraphPanel.revalidate();
+		resultGraphPanel.repaint();
+
+		// Switch to the output panel
+		cardLayout.show(mainPanel, "Output");
+	}
+
+	// Slider over the recorded steps and buttons to play them forwards or backwards in view.
+	// The replay starts at the last step, showing the finished tree.
+	private JPanel createReplayControls(GraphView view, StepReplay replay) {
+		view.setResult(null);
+		replay.seek(replay.last());
+		view.setReplay(replay);
+
+		// The slider is an int; runs with more steps than that move several steps per slider position
+		long span = replay.last() - replay.first();
+		long stride = Math.max(1, (span + Integer.MAX_VALUE - 1) / Integer.MAX_VALUE);
+		int positions = (int) (span / stride);
+		JSlider slider = new JSlider(0, positions, positions);
+		JLabel stepLabel = new JLabel(replay.describe());
+		slider.addChangeListener(new ChangeListener() {
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				long target = slider.getValue() == positions ? replay.last() : replay.first() + slider.getValue() * stride;
+				replay.seek(target);
+				stepLabel.setText(replay.describe());
+				view.repaint();
+			}
+		});
+
+		JComboBox<Integer> speedBox = new JComboBox<>(REPLAY_SPEEDS);
+		speedBox.setSelectedItem(100);
+		// Direction of playback: -1 backwards, 1 forwards
+		int[] direction = {1};
+		javax.swing.Timer timer = new javax.swing.Timer(REPLAY_TICK, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				int steps = (int) Math.max(1, (Integer) speedBox.getSelectedItem() / stride);
+				int next = (int) Math.max(0, Math.min(positions, (long) slider.getValue() + direction[0] * steps));
+				slider.setValue(next);
+				if (next == 0 || next == positions) {
+					((javax.swing.Timer) e.getSource()).stop();
+				}
+			}
+		});
+		replayTimer = timer;
+
+		JButton backButton = new JButton("<<");
+		JButton stepBackButton = new JButton("<");
+		JButton pauseButton = new JButton("||");
+		JButton stepButton = new JButton(">");
+		JButton playButton = new JButton(">>");
+		backButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				if (slider.getValue() == 0) {
+					slider.setValue(positions);
+				}
+				direction[0] = -1;
+				timer.start();
+			}
+		});
+		stepBackButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				timer.stop();
+				slider.setValue(slider.getValue() - 1);
+			}
+		});
+		pauseButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				timer.stop();
+			}
+		});
+		stepButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				timer.stop();
+				slider.setValue(slider.getValue() + 1);
+			}
+		});
+		playButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				if (slider.getValue() == positions) {
+					slider.setValue(0);
+				}
+				direction[0] = 1;
+				timer.start();
+			}
+		});
+
+		JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		buttons.add(backButton);
+		buttons.add(stepBackButton);
+		buttons.add(pauseButton);
+		buttons.add(stepButton);
+		buttons.add(playButton);
+		buttons.add(new JLabel("steps/tick"));
+		buttons.add(speedBox);
+
+		JPanel controls = new JPanel();
+		controls.setLayout(new BoxLayout(controls, BoxLayout.Y_AXIS));
+		controls.add(slider);
+		controls.add(stepLabel);
+		controls.add(buttons);
+		return controls;
+	}
+
+	// Helper method to create the result panel: a summary line and the run's metrics, with the edge listing on request.
+	// It shows whichever run showOutput last put up.
+	private JPanel createResultPanel() {
+		JPanel resultPanel = new JPanel(new BorderLayout());
+		resultArea = new JTextArea();
+		resultArea.setEditable(false);
+		resultArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+		JScrollPane scrollPane = new JScrollPane(resultArea);
+		resultPanel.add(scrollPane, BorderLayout.CENTER);
+
+		showEdgesButton = new JButton("Show Edges");
+		showEdgesButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				long start = System.nanoTime();
+				String edges = shownResult.format();
+				// A cached run keeps the format time of its first listing
+				if (shownMetrics.phaseNanos("format") == 0) {
+					shownMetrics.addPhase("format", System.nanoTime() - start);
+				}
+				resultArea.setText(shownResult.summary() + "\n\n" + shownMetrics.format() + "\n" + edges);
+				resultArea.setCaretPosition(0);
+				showEdgesButton.setEnabled(false);
+			}
+		});
+
+		JButton exportButton = new JButton("Export Metrics");
+		exportButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				JFileChooser chooser = new JFileChooser();
+				chooser.setDialogTitle("Export Metrics (.json or .csv)");
+				if (chooser.showSaveDialog(resultPanel) == JFileChooser.APPROVE_OPTION) {
+					exportMetrics(shownMetrics, chooser.getSelectedFile().toPath());
+				}
+			}
+		});
+
+		JPanel buttons = new JPanel();
+		buttons.add(showEdgesButton);
+		buttons.add(exportButton);
+		resultPanel.add(buttons, BorderLayout.SOUTH);
+		return resultPanel;
+	}
+
+	// Files ending in .csv get CSV rows under a header, anything else a JSON object
+	private void exportMetrics(RunMetrics metrics, Path file) {
+		String text = file.toString().toLowerCase().endsWith(".csv")
+				? RunMetrics.CSV_HEADER + "\n" + metrics.toCsv() : metrics.toJson() + "\n";
+		try {
+			Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			JOptionPane.showMessageDialog(this, "Cannot export metrics: " + e.getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE);
+		}
+	}
+
+	public static void main(String[] args) {
+		new GraphGUI();
+	}
+}
+
+
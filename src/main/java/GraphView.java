@@ -0,0 +1,377 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import mst.*;
+
+// Pan/zoom view of a graph whose vertices have world coordinates.
+// A SpatialIndex over the positions lets a repaint visit only the cells under the viewport.
+// Edges, vertices and labels form a static layer cached in a back-buffer that is rebuilt only when the
+// graph or the view changes; the MST highlight, or the state of a replayed run, is painted over it on every repaint.
+// Drag to pan, wheel to zoom, double-click to fit the whole graph.
+public class GraphView extends JPanel {
+	// Node radius in pixels at zoom 1 and the smallest radius drawn as an oval; below it vertices are dots
+	private static final double NODE_RADIUS = 15;
+	private static final double MIN_OVAL_RADIUS = 3;
+	// Labels and weights are only drawn while at most this many vertices or edges are visible
+	private static final int LABEL_LIMIT = 500;
+	private static final double ZOOM_STEP = 1.25;
+	private static final Color CANDIDATE_COLOR = new Color(60, 110, 220);
+	private static final Color REJECTED_COLOR = new Color(220, 90, 90);
+	private static final Stroke CURRENT_STROKE = new BasicStroke(3);
+
+	private final boolean showsResult;
+
+	private Graph graph;
+	private float[] x;
+	private float[] y;
+	private MstResult result;
+	private StepReplay replay;
+
+	// World to screen: screenX = (worldX - originX) * scale
+	private double originX;
+	private double originY;
+	private double scale = 1;
+	private boolean viewPlaced;
+
+	private SpatialIndex index;
+	// Set once the user pans or zooms; until then new layouts are fitted to the panel
+	private boolean userMoved;
+
+	private BufferedImage buffer;
+	private boolean bufferValid;
+
+	// Pixels dragged since the press; the buffer is shifted until the drag ends
+	private int pressX;
+	private int pressY;
+	private int dragX;
+	private int dragY;
+
+	// showsResult: draw non-tree edges faintly and tree edges with their weights on top
+	public GraphView(boolean showsResult) {
+		this.showsResult = showsResult;
+		MouseAdapter mouse = new MouseAdapter() {
+			@Override
+			public void mousePressed(MouseEvent e) {
+				pressX = e.getX();
+				pressY = e.getY();
+			}
+
+			@Override
+			public void mouseDragged(MouseEvent e) {
+				dragX = e.getX() - pressX;
+				dragY = e.getY() - pressY;
+				repaint();
+			}
+
+			@Override
+			public void mouseReleased(MouseEvent e) {
+				if (dragX != 0 || dragY != 0) {
+					userMoved = true;
+					originX -= dragX / scale;
+					originY -= dragY / scale;
+					dragX = 0;
+					dragY = 0;
+					invalidateBuffer();
+				}
+			}
+
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				if (e.getClickCount() == 2) {
+					fit();
+				}
+			}
+
+			@Override
+			public void mouseWheelMoved(MouseWheelEvent e) {
+				userMoved = true;
+				zoom(Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+			}
+		};
+		addMouseListener(mouse);
+		addMouseMotionListener(mouse);
+		addMouseWheelListener(mouse);
+	}
+
+	// Show graph with vertex v at (x[v], y[v]). Passing the same position arrays again keeps the index and the view,
+	// which is the case when only weights changed.
+	public void setGraph(Graph graph, float[] x, float[] y) {
+		boolean samePositions = this.graph != null && x == this.x && y == this.y;
+		boolean sameLayout = samePositions && graph.sharesTopology(this.graph);
+		this.graph = graph;
+		this.x = x;
+		this.y = y;
+		if (!sameLayout) {
+			index = new SpatialIndex(graph, x, y);
+		}
+		// Edges added or removed on the same vertices keep the zoom
+		if (!samePositions) {
+			viewPlaced = false;
+			userMoved = false;
+		}
+		invalidateBuffer();
+	}
+
+	// Show new positions for the current graph with an index built elsewhere, e.g. by a layout worker.
+	// The index must cover the edges of the current graph; the graph itself, and so its weights, stays.
+	// The view follows the layout until the user pans or zooms.
+	public void setLayout(SpatialIndex index) {
+		this.x = index.x();
+		this.y = index.y();
+		this.index = index;
+		if (!userMoved) {
+			viewPlaced = false;
+		}
+		invalidateBuffer();
+	}
+
+	public void setResult(MstResult result) {
+		this.result = result;
+		repaint();
+	}
+
+	// Show the state of a replayed run instead of the result; repaint after moving the replay
+	public void setReplay(StepReplay replay) {
+		this.replay = replay;
+		repaint();
+	}
+
+	// Zoom by factor keeping the world point under (screenX, screenY) in place
+	public void zoom(double factor, int screenX, int screenY) {
+		double worldX = originX + screenX / scale;
+		double worldY = originY + screenY / scale;
+		scale *= factor;
+		originX = worldX - screenX / scale;
+		originY = worldY - screenY / scale;
+		invalidateBuffer();
+	}
+
+	// Scale and centre the view on the whole graph
+	public void fit() {
+		if (graph == null || graph.vertexCount() == 0 || getWidth() == 0) {
+			return;
+		}
+		Insets insets = getInsets();
+		double margin = NODE_RADIUS * 2;
+		double width = Math.max(getWidth() - insets.left - insets.right - margin, 1);
+		double height = Math.max(getHeight() - insets.top - insets.bottom - margin, 1);
+		scale = Math.min(width / Math.max(index.maxX() - index.minX(), 1), height / Math.max(index.maxY() - index.minY(), 1));
+		originX = (index.minX() + index.maxX()) / 2.0 - getWidth() / 2.0 / scale;
+		originY = (index.minY() + index.maxY()) / 2.0 - getHeight() / 2.0 / scale;
+		viewPlaced = true;
+		invalidateBuffer();
+	}
+
+	private void invalidateBuffer() {
+		bufferValid = false;
+		repaint();
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		super.paintComponent(g);
+		if (graph == null) {
+			return;
+		}
+		if (!viewPlaced) {
+			placeView();
+		}
+		int width = getWidth();
+		int height = getHeight();
+		if (buffer == null || buffer.getWidth() != width || buffer.getHeight() != height) {
+			buffer = new BufferedImage(Math.max(width, 1), Math.max(height, 1), BufferedImage.TYPE_INT_ARGB);
+			bufferValid = false;
+		}
+		if (!bufferValid) {
+			Graphics2D bufferGraphics = buffer.createGraphics();
+			bufferGraphics.setComposite(AlphaComposite.Clear);
+			bufferGraphics.fillRect(0, 0, width, height);
+			bufferGraphics.setComposite(AlphaComposite.SrcOver);
+			bufferGraphics.setFont(getFont());
+			double margin = NODE_RADIUS / scale;
+			index.query(originX - margin, originY - margin, originX + width / scale + margin, originY + height / scale + margin);
+			paintStatic(bufferGraphics);
+			bufferGraphics.dispose();
+			bufferValid = true;
+		}
+		g.drawImage(buffer, dragX, dragY, null);
+		if (showsResult && (result != null || replay != null)) {
+			Graphics2D highlight = (Graphics2D) g.create();
+			highlight.translate(dragX, dragY);
+			if (replay != null) {
+				paintReplay(highlight);
+			} else {
+				paintResult(highlight);
+			}
+			highlight.dispose();
+		}
+	}
+
+	// Graphs that fit at zoom 1 keep their own coordinates, larger ones are fitted to the panel
+	private void placeView() {
+		if (index.minX() >= 0 && index.minY() >= 0 && index.maxX() + NODE_RADIUS <= getWidth()
+				&& index.maxY() + NODE_RADIUS <= getHeight()) {
+			scale = 1;
+			originX = 0;
+			originY = 0;
+			viewPlaced = true;
+		} else {
+			fit();
+		}
+	}
+
+	private void paintStatic(Graphics2D g) {
+		int edgeCount = index.visibleEdgeCount();
+		int vertexCount = index.visibleVertexCount();
+		double radius = nodeRadius();
+		boolean detailed = radius >= MIN_OVAL_RADIUS;
+		if (detailed) {
+			g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		}
+
+		// Edges, with weights while few are visible; a result view leaves the tree edges to the highlight layer
+		g.setColor(showsResult ? Color.LIGHT_GRAY : getForeground());
+		for (int i = 0; i < edgeCount; i++) {
+			drawEdge(g, index.visibleEdge(i), radius);
+		}
+		if (!showsResult && edgeCount <= LABEL_LIMIT && detailed) {
+			g.setColor(Color.BLACK);
+			for (int i = 0; i < edgeCount; i++) {
+				drawWeight(g, index.visibleEdge(i));
+			}
+		}
+
+		// Vertices as ovals when zoomed in, as single dots when zoomed out
+		g.setColor(Color.ORANGE);
+		for (int i = 0; i < vertexCount; i++) {
+			int v = index.visibleVertex(i);
+			int sx = screenX(x[v]);
+			int sy = screenY(y[v]);
+			if (detailed) {
+				int r = (int) radius;
+				g.fillOval(sx - r, sy - r, 2 * r, 2 * r);
+			} else {
+				g.fillRect(sx - 1, sy - 1, 2, 2);
+			}
+		}
+		// Labels are shown in capitals, as the sample graph always has been
+		if (vertexCount <= LABEL_LIMIT && radius >= NODE_RADIUS / 2) {
+			g.setColor(Color.BLACK);
+			for (int i = 0; i < vertexCount; i++) {
+				int v = index.visibleVertex(i);
+				g.drawString(graph.name(v).toUpperCase(), screenX(x[v]) - 5, screenY(y[v]) + 5);
+			}
+		}
+	}
+
+	// Tree edges among the visible ones, with their weights
+	private void paintResult(Graphics2D g) {
+		int edgeCount = index.visibleEdgeCount();
+		double radius = nodeRadius();
+		boolean detailed = radius >= MIN_OVAL_RADIUS;
+		if (detailed) {
+			g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		}
+		g.setColor(getForeground());
+		for (int i = 0; i < edgeCount; i++) {
+			if (result.contains(index.visibleEdge(i))) {
+				drawEdge(g, index.visibleEdge(i), radius);
+			}
+		}
+		if (edgeCount <= LABEL_LIMIT && detailed) {
+			g.setColor(Color.BLACK);
+			for (int i = 0; i < edgeCount; i++) {
+				if (result.contains(index.visibleEdge(i))) {
+					drawWeight(g, index.visibleEdge(i));
+				}
+			}
+		}
+	}
+
+	// Edges coloured by their state at the replay position, the edge of the last step drawn thick
+	private void paintReplay(Graphics2D g) {
+		int edgeCount = index.visibleEdgeCount();
+		double radius = nodeRadius();
+		boolean detailed = radius >= MIN_OVAL_RADIUS;
+		if (detailed) {
+			g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		}
+		for (int i = 0; i < edgeCount; i++) {
+			int e = index.visibleEdge(i);
+			switch (replay.state(e)) {
+				case StepReplay.CANDIDATE:
+					g.setColor(CANDIDATE_COLOR);
+					break;
+				case StepReplay.ACCEPTED:
+					g.setColor(getForeground());
+					break;
+				case StepReplay.REJECTED:
+					g.setColor(REJECTED_COLOR);
+					break;
+				default:
+					continue;
+			}
+			drawEdge(g, e, radius);
+		}
+		int current = replay.currentEdge();
+		if (current >= 0) {
+			g.setColor(Color.ORANGE.darker());
+			g.setStroke(CURRENT_STROKE);
+			drawEdge(g, current, radius);
+		}
+		if (edgeCount <= LABEL_LIMIT && detailed) {
+			g.setColor(Color.BLACK);
+			for (int i = 0; i < edgeCount; i++) {
+				if (replay.state(index.visibleEdge(i)) == StepReplay.ACCEPTED) {
+					drawWeight(g, index.visibleEdge(i));
+				}
+			}
+		}
+	}
+
+	// Line between the two vertex outlines, so it never crosses a drawn vertex
+	private void drawEdge(Graphics2D g, int e, double radius) {
+		int u = graph.source(e);
+		int v = graph.target(e);
+		double x1 = (x[u] - originX) * scale;
+		double y1 = (y[u] - originY) * scale;
+		double x2 = (x[v] - originX) * scale;
+		double y2 = (y[v] - originY) * scale;
+		if (radius >= MIN_OVAL_RADIUS) {
+			double length = Math.hypot(x2 - x1, y2 - y1);
+			if (length <= 2 * radius) {
+				return;
+			}
+			double dx = (x2 - x1) / length * radius;
+			double dy = (y2 - y1) / length * radius;
+			x1 += dx;
+			y1 += dy;
+			x2 -= dx;
+			y2 -= dy;
+		}
+		g.drawLine((int) x1, (int) y1, (int) x2, (int) y2);
+	}
+
+	private void drawWeight(Graphics2D g, int e) {
+		int u = graph.source(e);
+		int v = graph.target(e);
+		int midX = (screenX(x[u]) + screenX(x[v])) / 2;
+		int midY = (screenY(y[u]) + screenY(y[v])) / 2;
+		g.drawString(graph.weightText(e), midX, midY);
+	}
+
+	private double nodeRadius() {
+		return Math.min(NODE_RADIUS, NODE_RADIUS * scale);
+	}
+
+	private int screenX(float worldX) {
+		return (int) ((worldX - originX) * scale);
+	}
+
+	private int screenY(float worldY) {
+		return (int) ((worldY - originY) * scale);
+	}
+}
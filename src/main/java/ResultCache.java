@@ -0,0 +1,87 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import mst.*;
+
+// Bounded LRU of finished runs, keyed by the content hash of the graph and the algorithm.
+// A hit is confirmed against the cached run's graph, so a hash collision only costs a recomputation.
+// Every entry keeps its graph alive, with its weights and any cached edge order, so besides the entry count
+// the cache is bounded by the edges of those graphs: least recently used runs are evicted down to both limits.
+// Snapshots that differ only in weights share their other arrays, so the edge bound errs on the safe side.
+final class ResultCache {
+	// A finished run and the metrics it was shown with
+	static final class Entry {
+		final MstResult result;
+		final RunMetrics metrics;
+
+		Entry(MstResult result, RunMetrics metrics) {
+			this.result = result;
+			this.metrics = metrics;
+		}
+	}
+
+	private static final class Key {
+		private final long hash;
+		private final MstAlgorithm algorithm;
+
+		Key(long hash, MstAlgorithm algorithm) {
+			this.hash = hash;
+			this.algorithm = algorithm;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) other;
+			return key.hash == hash && key.algorithm == algorithm;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(hash, algorithm);
+		}
+	}
+
+	private final int capacity;
+	private final long maxEdges;
+	// Access order, so the first entry is the least recently used one
+	private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long edges;
+
+	ResultCache(int capacity, long maxEdges) {
+		this.capacity = capacity;
+		this.maxEdges = maxEdges;
+	}
+
+	// The cached run of algorithm on a graph with the same content, or null
+	Entry get(Graph graph, MstAlgorithm algorithm) {
+		Entry entry = entries.get(new Key(graph.contentHash(), algorithm));
+		return entry != null && entry.result.graph().sameContent(graph) ? entry : null;
+	}
+
+	// A run on a graph with more than maxEdges edges is not kept
+	void put(MstResult result, RunMetrics metrics) {
+		Graph graph = result.graph();
+		if (graph.edgeCount() > maxEdges) {
+			return;
+		}
+		Entry previous = entries.put(new Key(graph.contentHash(), result.algorithm()), new Entry(result, metrics));
+		if (previous != null) {
+			edges -= previous.result.graph().edgeCount();
+		}
+		edges += graph.edgeCount();
+		Iterator<Entry> eldest = entries.values().iterator();
+		while (entries.size() > capacity || edges > maxEdges) {
+			edges -= eldest.next().result.graph().edgeCount();
+			eldest.remove();
+		}
+	}
+
+	void clear() {
+		entries.clear();
+		edges = 0;
+	}
+}
@@ -0,0 +1,238 @@
+import java.util.Arrays;
+import mst.*;
+
+// Uniform grid over a graph's vertex positions, answering "which edges and vertices overlap this rectangle".
+// Cells hold about four vertices; vertices and edges are bucketed by counting first and then scattering into
+// flat arrays as the CSR graph does. An edge goes into every cell its bounding box overlaps, unless that is more
+// than LONG_EDGE_CELLS cells, in which case it is kept in one list and tested on its own.
+// Building is safe on any thread; queries belong to the thread that paints.
+final class SpatialIndex {
+	private static final int LONG_EDGE_CELLS = 16;
+
+	private final Graph graph;
+	private final float[] x;
+	private final float[] y;
+
+	private final float minX;
+	private final float minY;
+	private final float maxX;
+	private final float maxY;
+	private final float cellSize;
+	private final int cellsX;
+	private final int cellsY;
+	// Cell c holds cellEdges[edgeStart[c], edgeStart[c + 1]) and likewise for vertices
+	private final int[] edgeStart;
+	private final int[] cellEdges;
+	private final int[] vertexStart;
+	private final int[] cellVertices;
+	private final int[] longEdges;
+
+	// Query state: an edge was already reported when its mark equals the current stamp
+	private final int[] edgeMark;
+	private int stamp;
+	private int[] visibleEdges = new int[0];
+	private int visibleEdgeCount;
+	private int[] visibleVertices = new int[0];
+	private int visibleVertexCount;
+
+	SpatialIndex(Graph graph, float[] x, float[] y) {
+		this.graph = graph;
+		this.x = x;
+		this.y = y;
+		int n = graph.vertexCount();
+		int m = graph.edgeCount();
+		float lowX = Float.MAX_VALUE;
+		float lowY = Float.MAX_VALUE;
+		float highX = -Float.MAX_VALUE;
+		float highY = -Float.MAX_VALUE;
+		for (int v = 0; v < n; v++) {
+			lowX = Math.min(lowX, x[v]);
+			lowY = Math.min(lowY, y[v]);
+			highX = Math.max(highX, x[v]);
+			highY = Math.max(highY, y[v]);
+		}
+		if (n == 0) {
+			lowX = lowY = highX = highY = 0;
+		}
+		minX = lowX;
+		minY = lowY;
+		maxX = highX;
+		maxY = highY;
+		int cellsPerSide = (int) Math.max(1, Math.min(1024, Math.sqrt(n / 4.0)));
+		cellSize = Math.max(Math.max(maxX - minX, maxY - minY) / cellsPerSide, 1e-3f);
+		cellsX = Math.max(1, (int) Math.ceil((maxX - minX) / cellSize));
+		cellsY = Math.max(1, (int) Math.ceil((maxY - minY) / cellSize));
+		int cells = cellsX * cellsY;
+
+		vertexStart = new int[cells + 1];
+		for (int v = 0; v < n; v++) {
+			vertexStart[cellOf(v) + 1]++;
+		}
+		prefixSums(vertexStart);
+		cellVertices = new int[n];
+		int[] next = Arrays.copyOf(vertexStart, cells);
+		for (int v = 0; v < n; v++) {
+			cellVertices[next[cellOf(v)]++] = v;
+		}
+
+		edgeStart = new int[cells + 1];
+		int longCount = 0;
+		for (int e = 0; e < m; e++) {
+			int u = graph.source(e);
+			int v = graph.target(e);
+			int cx0 = cellX(Math.min(x[u], x[v]));
+			int cx1 = cellX(Math.max(x[u], x[v]));
+			int cy0 = cellY(Math.min(y[u], y[v]));
+			int cy1 = cellY(Math.max(y[u], y[v]));
+			if ((cx1 - cx0 + 1) * (cy1 - cy0 + 1) > LONG_EDGE_CELLS) {
+				longCount++;
+				continue;
+			}
+			for (int cy = cy0; cy <= cy1; cy++) {
+				for (int cx = cx0; cx <= cx1; cx++) {
+					edgeStart[cy * cellsX + cx + 1]++;
+				}
+			}
+		}
+		prefixSums(edgeStart);
+		cellEdges = new int[edgeStart[cells]];
+		longEdges = new int[longCount];
+		longCount = 0;
+		next = Arrays.copyOf(edgeStart, cells);
+		for (int e = 0; e < m; e++) {
+			int u = graph.source(e);
+			int v = graph.target(e);
+			int cx0 = cellX(Math.min(x[u], x[v]));
+			int cx1 = cellX(Math.max(x[u], x[v]));
+			int cy0 = cellY(Math.min(y[u], y[v]));
+			int cy1 = cellY(Math.max(y[u], y[v]));
+			if ((cx1 - cx0 + 1) * (cy1 - cy0 + 1) > LONG_EDGE_CELLS) {
+				longEdges[longCount++] = e;
+				continue;
+			}
+			for (int cy = cy0; cy <= cy1; cy++) {
+				for (int cx = cx0; cx <= cx1; cx++) {
+					cellEdges[next[cy * cellsX + cx]++] = e;
+				}
+			}
+		}
+		edgeMark = new int[m];
+	}
+
+	Graph graph() {
+		return graph;
+	}
+
+	float[] x() {
+		return x;
+	}
+
+	float[] y() {
+		return y;
+	}
+
+	float minX() {
+		return minX;
+	}
+
+	float minY() {
+		return minY;
+	}
+
+	float maxX() {
+		return maxX;
+	}
+
+	float maxY() {
+		return maxY;
+	}
+
+	// Collect the edges and vertices in the cells overlapping [x0, x1] x [y0, y1]
+	void query(double x0, double y0, double x1, double y1) {
+		visibleEdgeCount = 0;
+		visibleVertexCount = 0;
+		if (graph.vertexCount() == 0) {
+			return;
+		}
+		int cx0 = cellX(x0);
+		int cx1 = cellX(x1);
+		int cy0 = cellY(y0);
+		int cy1 = cellY(y1);
+		int visit = nextStamp();
+		for (int cy = cy0; cy <= cy1; cy++) {
+			for (int cx = cx0; cx <= cx1; cx++) {
+				int cell = cy * cellsX + cx;
+				for (int i = edgeStart[cell]; i < edgeStart[cell + 1]; i++) {
+					int e = cellEdges[i];
+					if (edgeMark[e] != visit) {
+						edgeMark[e] = visit;
+						addVisibleEdge(e);
+					}
+				}
+				for (int i = vertexStart[cell]; i < vertexStart[cell + 1]; i++) {
+					if (visibleVertexCount == visibleVertices.length) {
+						visibleVertices = Arrays.copyOf(visibleVertices, Math.max(16, visibleVertexCount * 2));
+					}
+					visibleVertices[visibleVertexCount++] = cellVertices[i];
+				}
+			}
+		}
+		for (int e : longEdges) {
+			int u = graph.source(e);
+			int v = graph.target(e);
+			if (Math.max(x[u], x[v]) >= x0 && Math.min(x[u], x[v]) <= x1
+					&& Math.max(y[u], y[v]) >= y0 && Math.min(y[u], y[v]) <= y1) {
+				addVisibleEdge(e);
+			}
+		}
+	}
+
+	int visibleEdgeCount() {
+		return visibleEdgeCount;
+	}
+
+	int visibleEdge(int i) {
+		return visibleEdges[i];
+	}
+
+	int visibleVertexCount() {
+		return visibleVertexCount;
+	}
+
+	int visibleVertex(int i) {
+		return visibleVertices[i];
+	}
+
+	private void addVisibleEdge(int e) {
+		if (visibleEdgeCount == visibleEdges.length) {
+			visibleEdges = Arrays.copyOf(visibleEdges, Math.max(16, visibleEdgeCount * 2));
+		}
+		visibleEdges[visibleEdgeCount++] = e;
+	}
+
+	private int cellX(double worldX) {
+		return (int) Math.max(0, Math.min(cellsX - 1, Math.floor((worldX - minX) / cellSize)));
+	}
+
+	private int cellY(double worldY) {
+		return (int) Math.max(0, Math.min(cellsY - 1, Math.floor((worldY - minY) / cellSize)));
+	}
+
+	private int cellOf(int v) {
+		return cellY(y[v]) * cellsX + cellX(x[v]);
+	}
+
+	private int nextStamp() {
+		if (++stamp == Integer.MAX_VALUE) {
+			Arrays.fill(edgeMark, 0);
+			stamp = 1;
+		}
+		return stamp;
+	}
+
+	private static void prefixSums(int[] counts) {
+		for (int i = 1; i < counts.length; i++) {
+			counts[i] += counts[i - 1];
+		}
+	}
+}
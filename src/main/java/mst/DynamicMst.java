@@ -0,0 +1,489 @@
+package mst;
+
+import java.util.Arrays;
+
+// Minimum spanning forest kept up to date under edge insertions, deletions and weight changes.
+// Instead of recomputing, each update applies the cycle or cut property to the current forest:
+// - an edge that is inserted or gets cheaper replaces the heaviest forest edge on the path between its ends
+// - a forest edge that is deleted or gets dearer is replaced by the cheapest edge across the cut it leaves
+// Path queries go through a link-cut tree in amortized O(log n); a cut walks its smaller side and the edges
+// incident to it, which stays far below the edge count unless the cut splits the forest evenly.
+// Ties are broken by edge id, so the forest does not depend on the order of updates.
+public final class DynamicMst {
+	private static final byte SPARE = 0;
+	private static final byte TREE = 1;
+	private static final byte DELETED = 2;
+
+	private int vertexCount;
+	private int edgeCount;
+	private int[] sources;
+	private int[] targets;
+	private long[] weights;
+	private byte[] state;
+
+	// Live edges per vertex, and the forest edges among them
+	private int[][] incident;
+	private int[] incidentSize;
+	private int[][] tree;
+	private int[] treeSize;
+
+	// The forest again as link-cut trees, with one node per vertex and one per forest edge
+	private LinkCutTree forest;
+	private int[] vertexNode;
+	private int[] edgeNode;
+
+	private int treeEdgeCount;
+	private long totalWeight;
+	private int deletedCount;
+
+	// Search scratch: a vertex is visited when its mark equals the current stamp
+	private int[] mark;
+	private int stamp;
+	private int[] queue;
+	private int[] otherQueue;
+
+	public DynamicMst(int vertexCount) {
+		this(vertexCount, 16);
+	}
+
+	public DynamicMst(int vertexCount, int expectedEdges) {
+		allocate(vertexCount, expectedEdges);
+	}
+
+	public DynamicMst(Graph graph) {
+		this(graph, MstMonitor.NONE);
+	}
+
+	// Start from the minimum spanning forest of graph; edge ids are the graph's edge ids
+	public DynamicMst(Graph graph, MstMonitor monitor) {
+		load(graph, monitor);
+	}
+
+	public int vertexCount() {
+		return vertexCount;
+	}
+
+	// Edge ids handed out so far, deleted edges included
+	public int edgeCount() {
+		return edgeCount;
+	}
+
+	public int source(int edge) {
+		return sources[edge];
+	}
+
+	public int target(int edge) {
+		return targets[edge];
+	}
+
+	public long weight(int edge) {
+		return weights[edge];
+	}
+
+	public boolean isTreeEdge(int edge) {
+		return state[edge] == TREE;
+	}
+
+	public boolean isDeleted(int edge) {
+		return state[edge] == DELETED;
+	}
+
+	public int treeEdgeCount() {
+		return treeEdgeCount;
+	}
+
+	// Sum of the stored weights; for double weights these are keys, so use MstResult.doubleTotalWeight instead
+	public long totalWeight() {
+		return totalWeight;
+	}
+
+	// True when the forest is a single tree over every vertex
+	public boolean isSpanningTree() {
+		return treeEdgeCount == Math.max(vertexCount - 1, 0);
+	}
+
+	// Forest edge ids, listed per vertex from the forest adjacency rather than by scanning every edge
+	public int[] treeEdges() {
+		int[] result = new int[treeEdgeCount];
+		int count = 0;
+		for (int v = 0; v < vertexCount; v++) {
+			int[] edges = tree[v];
+			for (int i = 0; i < treeSize[v]; i++) {
+				if (sources[edges[i]] == v) {
+					result[count++] = edges[i];
+				}
+			}
+		}
+		return result;
+	}
+
+	public int addVertex() {
+		ensureVertices(vertexCount + 1);
+		return vertexCount - 1;
+	}
+
+	// Add an edge, growing the vertex range if needed, and return its id
+	public int insertEdge(int source, int target, long weight) {
+		if (source < 0 || target < 0) {
+			throw new IllegalArgumentException("Negative vertex id " + Math.min(source, target));
+		}
+		ensureVertices(Math.max(source, target) + 1);
+		if (edgeCount == sources.length) {
+			int capacity = Math.max(16, edgeCount * 2);
+			sources = Arrays.copyOf(sources, capacity);
+			targets = Arrays.copyOf(targets, capacity);
+			weights = Arrays.copyOf(weights, capacity);
+			state = Arrays.copyOf(state, capacity);
+			edgeNode = Arrays.copyOf(edgeNode, capacity);
+		}
+		int edge = edgeCount++;
+		sources[edge] = source;
+		targets[edge] = target;
+		weights[edge] = weight;
+		state[edge] = SPARE;
+		addIncident(source, edge);
+		if (target != source) {
+			addIncident(target, edge);
+		}
+		offer(edge);
+		return edge;
+	}
+
+	public void deleteEdge(int edge) {
+		checkLive(edge);
+		removeIncident(sources[edge], edge);
+		if (targets[edge] != sources[edge]) {
+			removeIncident(targets[edge], edge);
+		}
+		boolean wasTree = state[edge] == TREE;
+		state[edge] = DELETED;
+		deletedCount++;
+		if (wasTree) {
+			unlink(edge);
+			replace(edge);
+		}
+	}
+
+	public void setWeight(int edge, long weight) {
+		checkLive(edge);
+		long old = weights[edge];
+		if (weight == old) {
+			return;
+		}
+		if (state[edge] == TREE) {
+			weights[edge] = weight;
+			totalWeight += weight - old;
+			if (weight > old) {
+				// Cut property: a cheaper edge across the cut may now take its place
+				unlink(edge);
+				replace(edge);
+			} else {
+				forest.setKey(edgeNode[edge], weight);
+			}
+		} else {
+			weights[edge] = weight;
+			if (weight < old) {
+				offer(edge);
+			}
+		}
+	}
+
+	// Bring the forest in line with graph. When graph has the same vertices and edge endpoints as this
+	// instance, only changed weights are applied, one update each; otherwise the forest is rebuilt.
+	public MstResult update(Graph graph, MstMonitor monitor) {
+		RunMetrics metrics = monitor.metrics();
+		if (metrics != null) {
+			metrics.start(MstAlgorithm.DYNAMIC, graph);
+		}
+		long start = System.nanoTime();
+		if (sameShape(graph)) {
+			if (metrics != null) {
+				metrics.begin("weight updates");
+			}
+			int m = graph.edgeCount();
+			long[] graphWeights = graph.weights();
+			int changed = 0;
+			for (int e = 0; e < m; e++) {
+				if ((e & (Mst.CHECKPOINT_INTERVAL - 1)) == 0) {
+					monitor.checkpoint(treeEdgeCount, e, m);
+				}
+				if (weights[e] != graphWeights[e]) {
+					changed++;
+					setWeight(e, graphWeights[e]);
+				}
+			}
+			if (metrics != null) {
+				metrics.count("weight changes", changed);
+			}
+			monitor.progress(treeEdgeCount, m, m);
+		} else {
+			load(graph, monitor);
+		}
+		long elapsed = System.nanoTime() - start;
+		if (metrics != null) {
+			metrics.begin("result");
+		}
+		MstResult result = new MstResult(MstAlgorithm.DYNAMIC, graph, treeEdges(), elapsed);
+		if (metrics != null) {
+			metrics.finish(elapsed);
+		}
+		return result;
+	}
+
+	private boolean sameShape(Graph graph) {
+		if (deletedCount != 0 || graph.vertexCount() != vertexCount || graph.edgeCount() != edgeCount) {
+			return false;
+		}
+		int[] graphSources = graph.sources();
+		int[] graphTargets = graph.targets();
+		for (int e = 0; e < edgeCount; e++) {
+			if (graphSources[e] != sources[e] || graphTargets[e] != targets[e]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Rebuild from graph: copy its edges and take the initial forest from Kruskal
+	private void load(Graph graph, MstMonitor monitor) {
+		int[] initial = Mst.kruskal(graph, monitor);
+		RunMetrics metrics = monitor.metrics();
+		if (metrics != null) {
+			metrics.begin("forest build");
+		}
+		int n = graph.vertexCount();
+		int m = graph.edgeCount();
+		allocate(n, m);
+		System.arraycopy(graph.sources(), 0, sources, 0, m);
+		System.arraycopy(graph.targets(), 0, targets, 0, m);
+		System.arraycopy(graph.weights(), 0, weights, 0, m);
+		edgeCount = m;
+
+		// Size every adjacency list up front from the vertex degrees
+		int[] degree = new int[n];
+		for (int e = 0; e < m; e++) {
+			degree[sources[e]]++;
+			if (targets[e] != sources[e]) {
+				degree[targets[e]]++;
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			incident[v] = new int[Math.max(degree[v], 2)];
+		}
+		for (int e = 0; e < m; e++) {
+			addIncident(sources[e], e);
+			if (targets[e] != sources[e]) {
+				addIncident(targets[e], e);
+			}
+		}
+		for (int e : initial) {
+			link(e);
+		}
+		if (metrics != null) {
+			metrics.end();
+		}
+	}
+
+	private void allocate(int n, int m) {
+		vertexCount = n;
+		edgeCount = 0;
+		sources = new int[m];
+		targets = new int[m];
+		weights = new long[m];
+		state = new byte[m];
+		incident = new int[n][];
+		incidentSize = new int[n];
+		tree = new int[n][];
+		treeSize = new int[n];
+		for (int v = 0; v < n; v++) {
+			incident[v] = new int[2];
+			tree[v] = new int[2];
+		}
+		treeEdgeCount = 0;
+		totalWeight = 0;
+		deletedCount = 0;
+		mark = new int[n];
+		stamp = 0;
+		forest = new LinkCutTree(2 * n);
+		vertexNode = new int[n];
+		for (int v = 0; v < n; v++) {
+			vertexNode[v] = forest.addVertex();
+		}
+		edgeNode = new int[m];
+		queue = new int[n];
+		otherQueue = new int[n];
+	}
+
+	private void ensureVertices(int n) {
+		if (n <= vertexCount) {
+			return;
+		}
+		if (n > incident.length) {
+			int capacity = Math.max(n, incident.length * 2);
+			incident = Arrays.copyOf(incident, capacity);
+			incidentSize = Arrays.copyOf(incidentSize, capacity);
+			tree = Arrays.copyOf(tree, capacity);
+			treeSize = Arrays.copyOf(treeSize, capacity);
+			mark = Arrays.copyOf(mark, capacity);
+			vertexNode = Arrays.copyOf(vertexNode, capacity);
+			queue = new int[capacity];
+			otherQueue = new int[capacity];
+		}
+		for (int v = vertexCount; v < n; v++) {
+			incident[v] = new int[2];
+			tree[v] = new int[2];
+			vertexNode[v] = forest.addVertex();
+		}
+		vertexCount = n;
+	}
+
+	// Cycle property: a spare edge enters the forest if its ends are in different trees,
+	// or if it is lighter than the heaviest edge on the forest path between them
+	private void offer(int edge) {
+		int u = vertexNode[sources[edge]];
+		int v = vertexNode[targets[edge]];
+		if (u == v) {
+			return;
+		}
+		if (!forest.connected(u, v)) {
+			link(edge);
+			return;
+		}
+		int heaviest = forest.heaviestOnPath(u, v);
+		if (lighter(edge, heaviest)) {
+			unlink(heaviest);
+			link(edge);
+		}
+	}
+
+	// Cut property: after removed has left the forest, join its two sides again with the lightest crossing edge.
+	// Both sides are explored in lockstep so only the smaller one is walked to completion.
+	private void replace(int removed) {
+		int sideA = nextStamp();
+		int sideB = nextStamp();
+		int u = sources[removed];
+		int v = targets[removed];
+		mark[u] = sideA;
+		mark[v] = sideB;
+		queue[0] = u;
+		otherQueue[0] = v;
+		int headA = 0;
+		int tailA = 1;
+		int headB = 0;
+		int tailB = 1;
+		while (headA < tailA && headB < tailB) {
+			tailA = expand(queue, headA++, tailA, sideA);
+			tailB = expand(otherQueue, headB++, tailB, sideB);
+		}
+		int[] side = headA == tailA ? queue : otherQueue;
+		int size = headA == tailA ? tailA : tailB;
+		int inside = headA == tailA ? sideA : sideB;
+
+		int best = -1;
+		for (int i = 0; i < size; i++) {
+			int x = side[i];
+			int[] edges = incident[x];
+			for (int j = 0; j < incidentSize[x]; j++) {
+				int e = edges[j];
+				int y = sources[e] == x ? targets[e] : sources[e];
+				if (state[e] == SPARE && mark[y] != inside && (best == -1 || lighter(e, best))) {
+					best = e;
+				}
+			}
+		}
+		if (best != -1) {
+			link(best);
+		}
+	}
+
+	// Visit the forest neighbours of frontier[head], returning the new tail
+	private int expand(int[] frontier, int head, int tail, int side) {
+		int x = frontier[head];
+		int[] edges = tree[x];
+		for (int i = 0; i < treeSize[x]; i++) {
+			int e = edges[i];
+			int y = sources[e] == x ? targets[e] : sources[e];
+			if (mark[y] != side) {
+				mark[y] = side;
+				frontier[tail++] = y;
+			}
+		}
+		return tail;
+	}
+
+	private int nextStamp() {
+		if (++stamp == Integer.MAX_VALUE) {
+			Arrays.fill(mark, 0);
+			stamp = 1;
+		}
+		return stamp;
+	}
+
+	// Order by weight, then by id
+	private boolean lighter(int a, int b) {
+		return weights[a] < weights[b] || (weights[a] == weights[b] && a < b);
+	}
+
+	private void link(int edge) {
+		state[edge] = TREE;
+		treeEdgeCount++;
+		totalWeight += weights[edge];
+		tree[sources[edge]] = append(tree[sources[edge]], treeSize[sources[edge]]++, edge);
+		tree[targets[edge]] = append(tree[targets[edge]], treeSize[targets[edge]]++, edge);
+		int node = forest.addEdge(edge, weights[edge]);
+		edgeNode[edge] = node;
+		forest.link(vertexNode[sources[edge]], node);
+		forest.link(node, vertexNode[targets[edge]]);
+	}
+
+	// Take edge out of the forest; a deleted edge keeps its DELETED state
+	private void unlink(int edge) {
+		if (state[edge] == TREE) {
+			state[edge] = SPARE;
+		}
+		treeEdgeCount--;
+		totalWeight -= weights[edge];
+		treeSize[sources[edge]] = remove(tree[sources[edge]], treeSize[sources[edge]], edge);
+		treeSize[targets[edge]] = remove(tree[targets[edge]], treeSize[targets[edge]], edge);
+		int node = edgeNode[edge];
+		forest.cut(vertexNode[sources[edge]], node);
+		forest.cut(node, vertexNode[targets[edge]]);
+		forest.release(node);
+	}
+
+	private void addIncident(int vertex, int edge) {
+		incident[vertex] = append(incident[vertex], incidentSize[vertex]++, edge);
+	}
+
+	private void removeIncident(int vertex, int edge) {
+		incidentSize[vertex] = remove(incident[vertex], incidentSize[vertex], edge);
+	}
+
+	private static int[] append(int[] list, int size, int value) {
+		if (size == list.length) {
+			list = Arrays.copyOf(list, Math.max(2, size * 2));
+		}
+		list[size] = value;
+		return list;
+	}
+
+	// Swap-remove value from the first size slots of list, returning the new size
+	private static int remove(int[] list, int size, int value) {
+		for (int i = 0; i < size; i++) {
+			if (list[i] == value) {
+				list[i] = list[size - 1];
+				return size - 1;
+			}
+		}
+		return size;
+	}
+
+	private void checkLive(int edge) {
+		if (edge < 0 || edge >= edgeCount) {
+			throw new IndexOutOfBoundsException("Edge " + edge + " out of range [0, " + edgeCount + ")");
+		}
+		if (state[edge] == DELETED) {
+			throw new IllegalArgumentException("Edge " + edge + " has been deleted");
+		}
+	}
+}
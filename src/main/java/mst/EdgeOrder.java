@@ -0,0 +1,182 @@
+package mst;
+
+import java.util.Arrays;
+
+// Edge ids ordered by (weight, id), the order Kruskal scans them in.
+// Integer weights are sorted with an LSD radix sort on the offset from the smallest weight;
+// an order whose graph changed in only a few weights is repaired by moving just the changed edges.
+final class EdgeOrder {
+	// Digit width of the radix passes: 2048 buckets, so 10^6-range weights take two passes
+	private static final int RADIX_BITS = 11;
+	static final int RADIX = 1 << RADIX_BITS;
+	// Below this many ids an insertion sort beats clearing the bucket counts
+	private static final int INSERTION_LIMIT = 64;
+
+	private EdgeOrder() {
+	}
+
+	// All edge ids [0, weights.length) sorted by weight
+	static int[] sort(long[] weights) {
+		int[] ids = new int[weights.length];
+		for (int e = 0; e < ids.length; e++) {
+			ids[e] = e;
+		}
+		sort(ids, ids.length, weights);
+		return ids;
+	}
+
+	// Sort ids[0, count), which must be in ascending id order, by (weight, id)
+	static void sort(int[] ids, int count, long[] weights) {
+		if (count < INSERTION_LIMIT) {
+			insertionSort(ids, count, weights);
+			return;
+		}
+		sort(ids, count, weights, new long[count], new int[count], new long[count], new int[RADIX]);
+	}
+
+	// As above, in buffers the caller keeps between sorts: keys, idBuffer and keyBuffer of at least count entries
+	// and counts of RADIX entries
+	static void sort(int[] ids, int count, long[] weights, long[] keys, int[] idBuffer, long[] keyBuffer, int[] counts) {
+		if (count < INSERTION_LIMIT) {
+			insertionSort(ids, count, weights);
+			return;
+		}
+		long min = Long.MAX_VALUE;
+		long max = Long.MIN_VALUE;
+		for (int i = 0; i < count; i++) {
+			long w = weights[ids[i]];
+			min = Math.min(min, w);
+			max = Math.max(max, w);
+		}
+		// Offsets from min fit in an unsigned long even when the weights span the whole long range
+		int bits = 64 - Long.numberOfLeadingZeros(max - min);
+
+		// Carry the keys next to the ids so each pass reads them sequentially
+		for (int i = 0; i < count; i++) {
+			keys[i] = weights[ids[i]] - min;
+		}
+		int[] fromIds = ids;
+		long[] fromKeys = keys;
+		int[] toIds = idBuffer;
+		long[] toKeys = keyBuffer;
+
+		// Stable passes from the lowest digit up, so equal weights keep their ascending ids
+		for (int shift = 0; shift < bits; shift += RADIX_BITS) {
+			Arrays.fill(counts, 0);
+			for (int i = 0; i < count; i++) {
+				counts[(int) (fromKeys[i] >>> shift) & (RADIX - 1)]++;
+			}
+			if (counts[(int) (fromKeys[0] >>> shift) & (RADIX - 1)] == count) {
+				continue; // every key has the same digit
+			}
+			int sum = 0;
+			for (int d = 0; d < RADIX; d++) {
+				int c = counts[d];
+				counts[d] = sum;
+				sum += c;
+			}
+			for (int i = 0; i < count; i++) {
+				int slot = counts[(int) (fromKeys[i] >>> shift) & (RADIX - 1)]++;
+				toIds[slot] = fromIds[i];
+				toKeys[slot] = fromKeys[i];
+			}
+			int[] swapIds = fromIds;
+			fromIds = toIds;
+			toIds = swapIds;
+			long[] swapKeys = fromKeys;
+			fromKeys = toKeys;
+			toKeys = swapKeys;
+		}
+		if (fromIds != ids) {
+			System.arraycopy(fromIds, 0, ids, 0, count);
+		}
+	}
+
+	// Radix passes sort would take over these weights
+	static int passes(long[] weights) {
+		if (weights.length < INSERTION_LIMIT) {
+			return 0;
+		}
+		long min = Long.MAX_VALUE;
+		long max = Long.MIN_VALUE;
+		for (long w : weights) {
+			min = Math.min(min, w);
+			max = Math.max(max, w);
+		}
+		int bits = 64 - Long.numberOfLeadingZeros(max - min);
+		return (bits + RADIX_BITS - 1) / RADIX_BITS;
+	}
+
+	// The order for weights, given the order for oldWeights and the ascending ids of the edges whose weight
+	// differs. Changed edges are located and re-inserted by binary search; everything between them is moved
+	// with block copies, so the unchanged edges are never compared.
+	static int[] repair(int[] order, long[] oldWeights, long[] weights, int[] changed, int changedCount) {
+		int[] removeAt = new int[changedCount];
+		for (int i = 0; i < changedCount; i++) {
+			removeAt[i] = lowerBound(order, oldWeights, oldWeights[changed[i]], changed[i]);
+		}
+		Arrays.sort(removeAt);
+		int[] reinserted = Arrays.copyOf(changed, changedCount);
+		sort(reinserted, changedCount, weights);
+		// Positions in the old order are still ordered by the old weights, changed edges included
+		int[] insertAt = new int[changedCount];
+		for (int i = 0; i < changedCount; i++) {
+			insertAt[i] = lowerBound(order, oldWeights, weights[reinserted[i]], reinserted[i]);
+		}
+
+		int[] result = new int[order.length];
+		int count = 0;
+		int from = 0;
+		int removed = 0;
+		int inserted = 0;
+		while (removed < changedCount || inserted < changedCount) {
+			int nextRemove = removed < changedCount ? removeAt[removed] : order.length;
+			int nextInsert = inserted < changedCount ? insertAt[inserted] : order.length;
+			if (nextInsert <= nextRemove) {
+				System.arraycopy(order, from, result, count, nextInsert - from);
+				count += nextInsert - from;
+				from = nextInsert;
+				result[count++] = reinserted[inserted++];
+			} else {
+				System.arraycopy(order, from, result, count, nextRemove - from);
+				count += nextRemove - from;
+				from = nextRemove + 1;
+				removed++;
+			}
+		}
+		System.arraycopy(order, from, result, count, order.length - from);
+		return result;
+	}
+
+	// First position in order whose (weight, id) is not below (weight, id)
+	private static int lowerBound(int[] order, long[] weights, long weight, int id) {
+		int lo = 0;
+		int hi = order.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			int e = order[mid];
+			if (weights[e] < weight || (weights[e] == weight && e < id)) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	private static boolean before(int a, int b, long[] weights) {
+		return weights[a] < weights[b] || (weights[a] == weights[b] && a < b);
+	}
+
+	private static void insertionSort(int[] ids, int count, long[] weights) {
+		for (int i = 1; i < count; i++) {
+			int id = ids[i];
+			int j = i - 1;
+			while (j >= 0 && before(id, ids[j], weights)) {
+				ids[j + 1] = ids[j];
+				j--;
+			}
+			ids[j + 1] = id;
+		}
+	}
+}
@@ -0,0 +1,382 @@
+package mst;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Euclidean MST of points in the plane, without the n^2 edges of the complete graph.
+// Boruvka over a k-d tree: each round every point looks up its nearest point in another component, and
+// every component keeps the closest of those. The tree prunes boxes farther than the best distance found
+// so far by any point of the component, and boxes whose points are all in the component itself.
+// The picked edges are exactly the MST edges (ties are broken by the lower, then the higher position of the
+// points in the tree, so they never form a cycle), and candidateGraph turns them into a graph with double weights that the
+// existing algorithms run on, Kruskal putting them in weight order.
+// Expected O(n log n) over about log n rounds, with the nearest-neighbour queries of a round in parallel.
+// The rounds work on positions in the tree rather than point ids, so a leaf's points are adjacent in memory.
+public final class EuclideanMst {
+	private static final int LEAF_SIZE = 8;
+	// Points per task of a round; consecutive points in tree order are close, so a task stays in cache
+	private static final int GRAIN = 1024;
+
+	private EuclideanMst() {
+	}
+
+	// Points read from a file, numbered in file order
+	public static final class Points {
+		private final double[] x;
+		private final double[] y;
+
+		Points(double[] x, double[] y) {
+			this.x = x;
+			this.y = y;
+		}
+
+		public int count() {
+			return x.length;
+		}
+
+		public double[] x() {
+			return x;
+		}
+
+		public double[] y() {
+			return y;
+		}
+	}
+
+	public static Graph candidateGraph(Points points) {
+		return candidateGraph(points, MstMonitor.NONE);
+	}
+
+	public static Graph candidateGraph(Points points, MstMonitor monitor) {
+		return candidateGraph(points.x, points.y, ForkJoinPool.commonPool(), monitor);
+	}
+
+	public static Graph candidateGraph(double[] x, double[] y, ForkJoinPool pool) {
+		return candidateGraph(x, y, pool, MstMonitor.NONE);
+	}
+
+	// Graph over vertices 0..n-1 for the points (x[i], y[i]) with the MST edges as its only edges,
+	// weighted by their length. Progress is reported once per round, with accepted and scanned counting
+	// the tree edges found out of n - 1; a cancelled monitor stops the search between rounds.
+	public static Graph candidateGraph(double[] x, double[] y, ForkJoinPool pool, MstMonitor monitor) {
+		int[] edges = tree(x, y, pool, monitor);
+		int n = x.length;
+		Graph.Builder builder = new Graph.Builder(Math.max(n - 1, 1)).vertices(n).doubleWeights();
+		for (int i = 0; i < edges.length; i += 2) {
+			int p = edges[i];
+			int q = edges[i + 1];
+			builder.addEdge(p, q, Math.hypot(x[p] - x[q], y[p] - y[q]));
+		}
+		return builder.build();
+	}
+
+	// The MST edges as point pairs p0, q0, p1, q1, ...
+	static int[] tree(double[] x, double[] y, ForkJoinPool pool, MstMonitor monitor) {
+		int n = x.length;
+		if (y.length != n) {
+			throw new IllegalArgumentException("Coordinate arrays differ in length: " + n + " and " + y.length);
+		}
+		for (int p = 0; p < n; p++) {
+			if (Double.isNaN(x[p]) || Double.isNaN(y[p]) || Double.isInfinite(x[p]) || Double.isInfinite(y[p])) {
+				throw new IllegalArgumentException("Point " + p + " is not finite");
+			}
+		}
+		int[] edges = new int[2 * Math.max(n - 1, 0)];
+		if (n < 2) {
+			return edges;
+		}
+		KdTree tree = new KdTree(x, y);
+		// From here on points are tree positions
+		UnionFind components = new UnionFind(n);
+		int[] component = new int[n];
+		int[] nearest = new int[n];
+		double[] distance = new double[n];
+		// Per component root: the best squared distance any of its points found, as raw double bits
+		AtomicLongArray bound = new AtomicLongArray(n);
+		int[] best = new int[n];
+		int count = 0;
+
+		Arrays.fill(nearest, -1);
+		while (count < n - 1) {
+			monitor.checkpoint(count, count, n - 1);
+			for (int p = 0; p < n; p++) {
+				component[p] = components.find(p);
+			}
+			tree.label(component);
+			for (int p = 0; p < n; p++) {
+				bound.set(p, Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+				best[p] = -1;
+			}
+
+			// Step 1: The nearest point in another component of every point. Components only grow, so a nearest
+			// point still outside is still the answer, and the distance to one that joined is a lower bound: a
+			// point whose lower bound exceeds the best distance of its component cannot improve on it and is skipped.
+			for (int p = 0; p < n; p++) {
+				if (foreign(p, nearest, component)) {
+					lower(bound, component[p], distance[p]);
+				}
+			}
+			// The rest are queried in tree order, so consecutive queries search the same boxes
+			pool.invoke(new ParallelMst.RangeTask(0, n, GRAIN, (from, to) -> {
+				int[] stack = new int[tree.depth * 2 + 2];
+				for (int p = from; p < to; p++) {
+					if (foreign(p, nearest, component)) {
+						continue;
+					}
+					int c = component[p];
+					double limit = Double.longBitsToDouble(bound.get(c));
+					if (distance[p] > limit) {
+						continue;
+					}
+					int q = tree.nearest(p, c, component, limit, stack, distance);
+					if (q >= 0) {
+						nearest[p] = q;
+						lower(bound, c, distance[p]);
+					} else if (limit < Double.POSITIVE_INFINITY) {
+						// Nothing within the limit, so it is a lower bound
+						distance[p] = limit;
+					}
+				}
+			}));
+
+			// Step 2: The closest pair of every component, by distance, then lower and higher position
+			for (int p = 0; p < n; p++) {
+				if (!foreign(p, nearest, component)) {
+					continue;
+				}
+				int q = nearest[p];
+				int c = component[p];
+				int b = best[c];
+				if (b < 0 || distance[p] < distance[b] || (distance[p] == distance[b] && before(p, q, b, nearest[b]))) {
+					best[c] = p;
+				}
+			}
+
+			// Step 3: Contract; two components that picked the same pair add it once
+			int before = count;
+			for (int c = 0; c < n; c++) {
+				int p = best[c];
+				if (p >= 0 && components.union(p, nearest[p])) {
+					edges[2 * count] = tree.order[p];
+					edges[2 * count + 1] = tree.order[nearest[p]];
+					count++;
+				}
+			}
+			if (count == before) {
+				throw new IllegalStateException("Boruvka round added no edge");
+			}
+		}
+		monitor.progress(count, count, n - 1);
+		return edges;
+	}
+
+	// True if p has a nearest point and it is still in another component
+	private static boolean foreign(int p, int[] nearest, int[] component) {
+		int q = nearest[p];
+		return q >= 0 && component[q] != component[p];
+	}
+
+	// Pair (p, q) orders before (r, s) by lower, then higher position
+	private static boolean before(int p, int q, int r, int s) {
+		int a = Math.min(p, q);
+		int b = Math.min(r, s);
+		return a < b || (a == b && Math.max(p, q) < Math.max(r, s));
+	}
+
+	// Lock-free minimum of non-negative doubles, whose raw bits order like the values
+	private static void lower(AtomicLongArray bound, int c, double value) {
+		long bits = Double.doubleToRawLongBits(value);
+		long current = bound.get(c);
+		while (bits < current && !bound.compareAndSet(c, current, bits)) {
+			current = bound.get(c);
+		}
+	}
+
+	// Static k-d tree over the points, split at the median of the wider side of each box.
+	// Once built, x and y hold the coordinates in tree order and order maps a position back to its point id.
+	// Node i covers the positions start[i]..end[i]; its children are left[i] and left[i] + 1, or none when left[i] < 0.
+	// Nodes are numbered in preorder, so the children of a node always come after it.
+	private static final class KdTree {
+		private final double[] x;
+		private final double[] y;
+		final int[] order;
+		private final int[] start;
+		private final int[] end;
+		private final int[] left;
+		private final double[] minX;
+		private final double[] maxX;
+		private final double[] minY;
+		private final double[] maxY;
+		// Component of all points below the node, or -1 if they are in several
+		private final int[] label;
+		private int nodes;
+		int depth;
+
+		// Copies the coordinates, which the build then sorts into tree order along with order
+		KdTree(double[] x, double[] y) {
+			this.x = x.clone();
+			this.y = y.clone();
+			int n = x.length;
+			order = new int[n];
+			for (int p = 0; p < n; p++) {
+				order[p] = p;
+			}
+			// Median splits leave at least LEAF_SIZE / 2 points per leaf
+			int capacity = 2 * (2 * n / LEAF_SIZE + 1);
+			start = new int[capacity];
+			end = new int[capacity];
+			left = new int[capacity];
+			minX = new double[capacity];
+			maxX = new double[capacity];
+			minY = new double[capacity];
+			maxY = new double[capacity];
+			label = new int[capacity];
+			nodes = 1;
+			build(0, 0, n, 0);
+		}
+
+		private void build(int node, int from, int to, int level) {
+			depth = Math.max(depth, level);
+			start[node] = from;
+			end[node] = to;
+			double x0 = Double.POSITIVE_INFINITY;
+			double x1 = Double.NEGATIVE_INFINITY;
+			double y0 = Double.POSITIVE_INFINITY;
+			double y1 = Double.NEGATIVE_INFINITY;
+			for (int i = from; i < to; i++) {
+				x0 = Math.min(x0, x[i]);
+				x1 = Math.max(x1, x[i]);
+				y0 = Math.min(y0, y[i]);
+				y1 = Math.max(y1, y[i]);
+			}
+			minX[node] = x0;
+			maxX[node] = x1;
+			minY[node] = y0;
+			maxY[node] = y1;
+			if (to - from <= LEAF_SIZE) {
+				left[node] = -1;
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			select(from, to - 1, mid, x1 - x0 >= y1 - y0 ? x : y);
+			int child = nodes;
+			nodes += 2;
+			left[node] = child;
+			build(child, from, mid, level + 1);
+			build(child + 1, mid, to, level + 1);
+		}
+
+		// Reorder the positions lo..hi so that position k holds the point with the k-th smallest coordinate
+		private void select(int lo, int hi, int k, double[] coordinate) {
+			while (lo < hi) {
+				double pivot = coordinate[(lo + hi) >>> 1];
+				int i = lo;
+				int j = hi;
+				while (i <= j) {
+					while (coordinate[i] < pivot) {
+						i++;
+					}
+					while (coordinate[j] > pivot) {
+						j--;
+					}
+					if (i <= j) {
+						swap(i, j);
+						i++;
+						j--;
+					}
+				}
+				if (k <= j) {
+					hi = j;
+				} else if (k >= i) {
+					lo = i;
+				} else {
+					return;
+				}
+			}
+		}
+
+		private void swap(int i, int j) {
+			int point = order[i];
+			order[i] = order[j];
+			order[j] = point;
+			double c = x[i];
+			x[i] = x[j];
+			x[j] = c;
+			c = y[i];
+			y[i] = y[j];
+			y[j] = c;
+		}
+
+		// Component of every position; bottom up, so a query skips every box inside the querying point's own component
+		void label(int[] component) {
+			for (int node = nodes - 1; node >= 0; node--) {
+				int l = left[node];
+				if (l >= 0) {
+					label[node] = label[l] == label[l + 1] ? label[l] : -1;
+					continue;
+				}
+				int c = component[start[node]];
+				for (int i = start[node] + 1; i < end[node] && c >= 0; i++) {
+					if (component[i] != c) {
+						c = -1;
+					}
+				}
+				label[node] = c;
+			}
+		}
+
+		// Nearest point to p outside component c no farther than sqrt(limit), or -1; its squared distance goes
+		// into distance[p]. Boxes at exactly the limit are still searched, so ties are resolved by id like in
+		// the component pick.
+		int nearest(int p, int c, int[] component, double limit, int[] stack, double[] distance) {
+			double px = x[p];
+			double py = y[p];
+			double bestDistance = limit;
+			int best = -1;
+			int size = 0;
+			stack[size++] = 0;
+			while (size > 0) {
+				int node = stack[--size];
+				if (label[node] == c || boxDistance(node, px, py) > bestDistance) {
+					continue;
+				}
+				int l = left[node];
+				if (l < 0) {
+					for (int q = start[node]; q < end[node]; q++) {
+						if (component[q] == c) {
+							continue;
+						}
+						double dx = x[q] - px;
+						double dy = y[q] - py;
+						double d = dx * dx + dy * dy;
+						if (d < bestDistance || (d == bestDistance && (best < 0 || before(p, q, p, best)))) {
+							bestDistance = d;
+							best = q;
+						}
+					}
+					continue;
+				}
+				// Nearer child on top of the stack
+				if (boxDistance(l, px, py) <= boxDistance(l + 1, px, py)) {
+					stack[size++] = l + 1;
+					stack[size++] = l;
+				} else {
+					stack[size++] = l;
+					stack[size++] = l + 1;
+				}
+			}
+			if (best >= 0) {
+				distance[p] = bestDistance;
+			}
+			return best;
+		}
+
+		// Squared distance from (px, py) to the box of node, 0 inside it
+		private double boxDistance(int node, double px, double py) {
+			double dx = Math.max(0, Math.max(minX[node] - px, px - maxX[node]));
+			double dy = Math.max(0, Math.max(minY[node] - py, py - maxY[node]));
+			return dx * dx + dy * dy;
+		}
+	}
+}
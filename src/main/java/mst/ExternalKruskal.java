@@ -0,0 +1,620 @@
+package mst;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+// Kruskal for edge sets larger than the heap, straight from a graph file.
+// The file is read once and cut into runs of runEdges edges; each run is radix sorted in memory (EdgeOrder)
+// and written to a temporary file as 16-byte records: source, target, weight key. A k-way merge then streams
+// the runs in weight order into a union-find over the vertices, so while merging the heap holds only O(V):
+// the union-find, the tree edges and one read buffer per run. More than MAX_FAN_IN runs are first merged
+// into longer ones, which bounds the open files and the read buffers of the final merge.
+// Text files stream through the GraphLoader parsers and binary graph files are read from their mapping;
+// edge lists with named vertices need the in-memory loader.
+public final class ExternalKruskal {
+	// 40 bytes per edge while sorting a run (edge arrays, ids and radix buffers), so about 80 MB
+	public static final int DEFAULT_RUN_EDGES = 1 << 21;
+	static final int MAX_FAN_IN = 256;
+	private static final int RECORD_BYTES = 16;
+	// Read buffers of all runs of one merge together
+	private static final int MERGE_BUFFER_BYTES = 16 << 20;
+	private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+	private final int runEdges;
+	private final Path tempDir;
+
+	public ExternalKruskal() {
+		this(DEFAULT_RUN_EDGES, null);
+	}
+
+	// Runs of runEdges edges, written to tempDir or to java.io.tmpdir when it is null
+	public ExternalKruskal(int runEdges, Path tempDir) {
+		if (runEdges < 1) {
+			throw new IllegalArgumentException("Run size must be positive: " + runEdges);
+		}
+		this.runEdges = runEdges;
+		this.tempDir = tempDir != null ? tempDir : Paths.get(System.getProperty("java.io.tmpdir"));
+	}
+
+	public Result run(Path file) throws IOException {
+		return run(file, MstMonitor.NONE);
+	}
+
+	// Progress counts edges merged out of the edges read; the temporary files are deleted however the run ends
+	public Result run(Path file, MstMonitor monitor) throws IOException {
+		long start = System.nanoTime();
+		RunWriter runs = new RunWriter();
+		try {
+			GraphLoader.Format format = GraphLoader.detect(file);
+			GraphFile.MappedGraph mapped = null;
+			try {
+				if (format == GraphLoader.Format.BINARY) {
+					mapped = GraphFile.map(file);
+					runs.copy(mapped);
+				} else if (format == GraphLoader.Format.POINTS) {
+					// A point set has only its n - 1 candidate edges, built in memory
+					runs.copy(GraphLoader.load(file, format));
+				} else if (!GraphLoader.parse(file, format, runs, GraphLoader.DEFAULT_WINDOW)) {
+					throw new IOException(file + ": named vertices need the in-memory loader");
+				}
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			runs.finish();
+			long sortNanos = System.nanoTime() - start;
+
+			List<Run> merged = runs.runs;
+			int passes = 0;
+			while (merged.size() > MAX_FAN_IN) {
+				merged = mergePass(merged, runs, monitor);
+				passes++;
+			}
+			int n = runs.vertexCount;
+			int[] sources = new int[Math.max(n - 1, 0)];
+			int[] targets = new int[sources.length];
+			long[] weights = new long[sources.length];
+			int count = spanningTree(merged, runs, sources, targets, weights, monitor);
+			return new Result(n, runs.edgeCount, runs.runCount, passes + 1, sources, targets, weights, count,
+					runs.doubleWeights, runs.idBase, mapped, sortNanos, System.nanoTime() - start);
+		} finally {
+			runs.delete();
+		}
+	}
+
+	// Merge every MAX_FAN_IN runs into one, deleting them as soon as they are merged
+	private static List<Run> mergePass(List<Run> runs, RunWriter writer, MstMonitor monitor) throws IOException {
+		List<Run> merged = new ArrayList<>();
+		for (int from = 0; from < runs.size(); from += MAX_FAN_IN) {
+			List<Run> group = runs.subList(from, Math.min(from + MAX_FAN_IN, runs.size()));
+			if (group.size() == 1) {
+				merged.add(group.get(0));
+				continue;
+			}
+			if (monitor.isCancelled()) {
+				throw new CancellationException("MST computation cancelled");
+			}
+			Path file = writer.newFile();
+			long count = 0;
+			try (Merge merge = new Merge(group, writer.doubleWeights);
+			     RecordOutput out = new RecordOutput(file)) {
+				while (merge.next()) {
+					out.put(merge.source, merge.target, merge.key);
+					count++;
+				}
+			}
+			for (Run run : group) {
+				writer.delete(run.file);
+			}
+			merged.add(new Run(file, count, writer.doubleWeights));
+		}
+		return merged;
+	}
+
+	// Kruskal over the merged runs; returns the number of tree edges stored
+	private static int spanningTree(List<Run> runs, RunWriter writer, int[] sources, int[] targets, long[] weights,
+	                                MstMonitor monitor) throws IOException {
+		int n = writer.vertexCount;
+		int shift = writer.shift;
+		long total = writer.edgeCount;
+		UnionFind components = new UnionFind(n);
+		int count = 0;
+		long scanned = 0;
+		try (Merge merge = new Merge(runs, writer.doubleWeights)) {
+			while (count < n - 1 && merge.next()) {
+				if ((++scanned & (Mst.CHECKPOINT_INTERVAL - 1)) == 0) {
+					monitor.checkpoint(count, scanned, total);
+				}
+				int u = merge.source - shift;
+				int v = merge.target - shift;
+				if (components.union(u, v)) {
+					sources[count] = u;
+					targets[count] = v;
+					weights[count] = merge.key;
+					count++;
+				}
+			}
+		}
+		monitor.progress(count, total, total);
+		return count;
+	}
+
+	// A sorted run on disk; keys are integer weights unless encoded, see Weights
+	private static final class Run {
+		final Path file;
+		final long count;
+		final boolean encoded;
+
+		Run(Path file, long count, boolean encoded) {
+			this.file = file;
+			this.count = count;
+			this.encoded = encoded;
+		}
+	}
+
+	// Collects parsed edges into a run buffer and writes it out sorted whenever it is full.
+	// Tracks the vertices like Graph.Builder; a rebase only shifts the ids the merge reads back.
+	private final class RunWriter implements GraphLoader.EdgeSink {
+		private int[] sources = new int[0];
+		private int[] targets = new int[0];
+		private long[] weights = new long[0];
+		private int count;
+		private int[] ids;
+		private long[] keys;
+		private int[] idBuffer;
+		private long[] keyBuffer;
+		private int[] counts;
+
+		final List<Run> runs = new ArrayList<>();
+		private final List<Path> files = new ArrayList<>();
+		int runCount;
+		int vertexCount;
+		int idBase;
+		int shift;
+		long edgeCount;
+		boolean doubleWeights;
+
+		@Override
+		public void idBase(int base) {
+			idBase = base;
+		}
+
+		@Override
+		public void vertices(int count) {
+			vertexCount = Math.max(vertexCount, count);
+		}
+
+		@Override
+		public void ensureCapacity(int expectedEdges) {
+			grow(Math.min(expectedEdges, runEdges));
+		}
+
+		@Override
+		public void addEdge(int from, int to, long weight) {
+			addKey(from, to, doubleWeights ? Weights.encode(weight) : weight);
+		}
+
+		@Override
+		public void addEdge(int from, int to, double weight) {
+			useDoubleWeights();
+			addKey(from, to, Weights.encode(weight));
+		}
+
+		@Override
+		public long edgeCount() {
+			return edgeCount;
+		}
+
+		@Override
+		public void rebase(int base) {
+			if (base <= 0) {
+				return;
+			}
+			shift += base;
+			vertexCount -= base;
+			idBase += base;
+		}
+
+		// Runs already written keep integer keys; the merge encodes them as it reads, which keeps them sorted
+		private void useDoubleWeights() {
+			if (!doubleWeights) {
+				for (int i = 0; i < count; i++) {
+					weights[i] = Weights.encode(weights[i]);
+				}
+				doubleWeights = true;
+			}
+		}
+
+		private void addKey(int from, int to, long weight) {
+			if (from < 0 || to < 0) {
+				throw new IllegalArgumentException("Negative vertex id: " + from + " - " + to);
+			}
+			if (count == sources.length) {
+				if (count < runEdges) {
+					grow(Math.min(Math.max(count * 2, 1 << 16), runEdges));
+				} else {
+					try {
+						spill();
+					} catch (IOException e) {
+						// The parsers only pass parse errors on; run() unwraps this
+						throw new UncheckedIOException(e);
+					}
+				}
+			}
+			sources[count] = from;
+			targets[count] = to;
+			weights[count] = weight;
+			count++;
+			vertices(Math.max(from, to) + 1);
+			edgeCount++;
+		}
+
+		private void grow(int capacity) {
+			if (capacity > sources.length) {
+				sources = Arrays.copyOf(sources, capacity);
+				targets = Arrays.copyOf(targets, capacity);
+				weights = Arrays.copyOf(weights, capacity);
+			}
+		}
+
+		void copy(GraphFile.MappedGraph graph) {
+			IntBuffer from = graph.sources();
+			IntBuffer to = graph.targets();
+			LongBuffer keys = graph.weights();
+			vertices(graph.vertexCount());
+			doubleWeights = graph.hasDoubleWeights();
+			ensureCapacity(graph.edgeCount());
+			for (int e = 0; e < graph.edgeCount(); e++) {
+				addKey(from.get(e), to.get(e), keys.get(e));
+			}
+		}
+
+		void copy(Graph graph) {
+			vertices(graph.vertexCount());
+			doubleWeights = graph.hasDoubleWeights();
+			ensureCapacity(graph.edgeCount());
+			for (int e = 0; e < graph.edgeCount(); e++) {
+				addKey(graph.source(e), graph.target(e), graph.weight(e));
+			}
+		}
+
+		void finish() throws IOException {
+			spill();
+			// The parse buffers are not needed while merging
+			sources = targets = ids = idBuffer = null;
+			weights = keys = keyBuffer = null;
+		}
+
+		// Sort the buffered edges and write them out as one run
+		private void spill() throws IOException {
+			if (count == 0) {
+				return;
+			}
+			if (ids == null || ids.length < count) {
+				ids = new int[sources.length];
+				keys = new long[sources.length];
+				idBuffer = new int[sources.length];
+				keyBuffer = new long[sources.length];
+				counts = new int[EdgeOrder.RADIX];
+			}
+			for (int i = 0; i < count; i++) {
+				ids[i] = i;
+			}
+			EdgeOrder.sort(ids, count, weights, keys, idBuffer, keyBuffer, counts);
+			Path file = newFile();
+			try (RecordOutput out = new RecordOutput(file)) {
+				for (int i = 0; i < count; i++) {
+					int e = ids[i];
+					out.put(sources[e], targets[e], weights[e]);
+				}
+			}
+			runs.add(new Run(file, count, doubleWeights));
+			runCount++;
+			count = 0;
+		}
+
+		Path newFile() throws IOException {
+			Path file = Files.createTempFile(tempDir, "mst-run", ".bin");
+			files.add(file);
+			return file;
+		}
+
+		void delete(Path file) throws IOException {
+			Files.deleteIfExists(file);
+			files.remove(file);
+		}
+
+		// Remove every temporary file still there, reporting the first failure after trying them all
+		void delete() throws IOException {
+			IOException failure = null;
+			for (Path file : files) {
+				try {
+					Files.deleteIfExists(file);
+				} catch (IOException e) {
+					if (failure == null) {
+						failure = e;
+					}
+				}
+			}
+			files.clear();
+			if (failure != null) {
+				throw failure;
+			}
+		}
+	}
+
+	// Buffered little-endian record writer
+	private static final class RecordOutput implements AutoCloseable {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+		RecordOutput(Path file) throws IOException {
+			channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		}
+
+		void put(int source, int target, long key) throws IOException {
+			if (buffer.remaining() < RECORD_BYTES) {
+				flush();
+			}
+			buffer.putInt(source);
+			buffer.putInt(target);
+			buffer.putLong(key);
+		}
+
+		private void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	// Sequential reader of one run, holding its current record
+	private static final class RunReader {
+		private final FileChannel channel;
+		private final ByteBuffer buffer;
+		private final boolean encode;
+		private long remaining;
+		int source;
+		int target;
+		long key;
+
+		RunReader(Run run, int bufferBytes, boolean doubleWeights) throws IOException {
+			channel = FileChannel.open(run.file, StandardOpenOption.READ);
+			buffer = ByteBuffer.allocateDirect(bufferBytes).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.limit(0);
+			encode = doubleWeights && !run.encoded;
+			remaining = run.count;
+		}
+
+		boolean next() throws IOException {
+			if (remaining == 0) {
+				return false;
+			}
+			if (buffer.remaining() < RECORD_BYTES) {
+				buffer.compact();
+				while (buffer.position() < RECORD_BYTES) {
+					if (channel.read(buffer) < 0) {
+						throw new IOException("Temporary run file ended early");
+					}
+				}
+				buffer.flip();
+			}
+			source = buffer.getInt();
+			target = buffer.getInt();
+			long raw = buffer.getLong();
+			key = encode ? Weights.encode(raw) : raw;
+			remaining--;
+			return true;
+		}
+
+		void close() throws IOException {
+			channel.close();
+		}
+	}
+
+	// k-way merge of sorted runs through a heap of their current keys
+	private static final class Merge implements AutoCloseable {
+		private final RunReader[] readers;
+		private final IndexedDaryHeap heap;
+		int source;
+		int target;
+		long key;
+
+		Merge(List<Run> runs, boolean doubleWeights) throws IOException {
+			readers = new RunReader[runs.size()];
+			heap = new IndexedDaryHeap(Math.max(runs.size(), 1));
+			int bufferBytes = Math.max(MERGE_BUFFER_BYTES / Math.max(runs.size(), 1) / RECORD_BYTES, 256) * RECORD_BYTES;
+			try {
+				for (int r = 0; r < readers.length; r++) {
+					readers[r] = new RunReader(runs.get(r), bufferBytes, doubleWeights);
+					if (readers[r].next()) {
+						heap.insert(r, readers[r].key);
+					}
+				}
+			} catch (IOException e) {
+				close();
+				throw e;
+			}
+		}
+
+		// Move to the record with the lowest key left; false once every run is exhausted
+		boolean next() throws IOException {
+			if (heap.isEmpty()) {
+				return false;
+			}
+			int r = heap.poll();
+			RunReader reader = readers[r];
+			source = reader.source;
+			target = reader.target;
+			key = reader.key;
+			if (reader.next()) {
+				heap.insert(r, reader.key);
+			}
+			return true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			for (RunReader reader : readers) {
+				if (reader != null) {
+					reader.close();
+				}
+			}
+		}
+	}
+
+	// The spanning tree (or forest) found, with the vertex ids and weight keys of its edges
+	public static final class Result {
+		private final int vertexCount;
+		private final long inputEdgeCount;
+		private final int runCount;
+		private final int mergePasses;
+		private final int[] sources;
+		private final int[] targets;
+		private final long[] weights;
+		private final int count;
+		private final boolean doubleWeights;
+		private final int idBase;
+		private final GraphFile.MappedGraph names;
+		private final long sortNanos;
+		private final long elapsedNanos;
+		private final long totalWeight;
+		private final double doubleTotalWeight;
+
+		Result(int vertexCount, long inputEdgeCount, int runCount, int mergePasses, int[] sources, int[] targets,
+		       long[] weights, int count, boolean doubleWeights, int idBase, GraphFile.MappedGraph names,
+		       long sortNanos, long elapsedNanos) {
+			this.vertexCount = vertexCount;
+			this.inputEdgeCount = inputEdgeCount;
+			this.runCount = runCount;
+			this.mergePasses = mergePasses;
+			this.sources = sources;
+			this.targets = targets;
+			this.weights = weights;
+			this.count = count;
+			this.doubleWeights = doubleWeights;
+			this.idBase = idBase;
+			this.names = names;
+			this.sortNanos = sortNanos;
+			this.elapsedNanos = elapsedNanos;
+			long total = 0;
+			double doubleTotal = 0;
+			for (int i = 0; i < count; i++) {
+				if (doubleWeights) {
+					doubleTotal += Weights.decode(weights[i]);
+				} else {
+					total += weights[i];
+				}
+			}
+			this.totalWeight = doubleWeights ? Math.round(doubleTotal) : total;
+			this.doubleTotalWeight = doubleWeights ? doubleTotal : total;
+		}
+
+		public int vertexCount() {
+			return vertexCount;
+		}
+
+		// Edges read from the file
+		public long inputEdgeCount() {
+			return inputEdgeCount;
+		}
+
+		// Tree edges
+		public int edgeCount() {
+			return count;
+		}
+
+		public int source(int i) {
+			return sources[i];
+		}
+
+		public int target(int i) {
+			return targets[i];
+		}
+
+		// The weight of tree edge i, or its key for double weights, see Graph.weight
+		public long weight(int i) {
+			return weights[i];
+		}
+
+		public boolean hasDoubleWeights() {
+			return doubleWeights;
+		}
+
+		public String name(int vertex) {
+			return names != null ? names.name(vertex) : Integer.toString(vertex + idBase);
+		}
+
+		// Rounded to the nearest integer for double weights
+		public long totalWeight() {
+			return totalWeight;
+		}
+
+		public double doubleTotalWeight() {
+			return doubleTotalWeight;
+		}
+
+		public String totalWeightText() {
+			return doubleWeights ? Double.toString(doubleTotalWeight) : Long.toString(totalWeight);
+		}
+
+		public int componentCount() {
+			return vertexCount - count;
+		}
+
+		// Sorted runs written, and merge passes over them including the final one
+		public int runCount() {
+			return runCount;
+		}
+
+		public int mergePasses() {
+			return mergePasses;
+		}
+
+		// Reading and sorting the input, and the whole run
+		public long sortNanos() {
+			return sortNanos;
+		}
+
+		public long elapsedNanos() {
+			return elapsedNanos;
+		}
+
+		public String summary() {
+			String tree = componentCount() > 1 ? "spanning forest of " + componentCount() + " components, " : "MST: ";
+			return String.format("External Kruskal %s%d edges, total weight %s, %.3f ms (%d sorted runs, %d merge passes, sorting %.3f ms)",
+					tree, count, totalWeightText(), elapsedNanos / 1e6, runCount, mergePasses, sortNanos / 1e6);
+		}
+
+		// One "source - target (weight)" line per tree edge, in the order they were accepted
+		public void appendEdges(StringBuilder result) {
+			for (int i = 0; i < count; i++) {
+				result.append(name(sources[i])).append(" - ").append(name(targets[i]))
+				.append(" (").append(Weights.format(weights[i], doubleWeights)).append(")\n");
+			}
+		}
+	}
+}
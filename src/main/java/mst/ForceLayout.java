@@ -0,0 +1,413 @@
+package mst;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// Multilevel force-directed layout (Fruchterman-Reingold) with Barnes-Hut repulsion, run one iteration at a time.
+// The graph is first coarsened by repeatedly contracting a matching of its edges; the coarsest graph is laid
+// out, then each finer level starts from its parent's position, so large graphs unfold instead of folding.
+// Every iteration builds a quadtree over the vertices, then computes forces and moves vertices in parallel
+// on the fork-join pool: repulsion is approximated through the quadtree in O(n log n), attraction follows
+// the CSR adjacency, and each vertex only writes its own slots, so no locking is needed.
+// Moves are capped by a temperature that cools every iteration until the level is settled.
+public final class ForceLayout {
+	// Opening criterion: a quadtree cell counts as one body when its size is below THETA times its distance
+	private static final double THETA = 0.8;
+	private static final int LEAF_SIZE = 8;
+	private static final int MAX_DEPTH = 32;
+	private static final double COARSEST_COOLING = 0.97;
+	private static final double REFINE_COOLING = 0.93;
+	// Coarsening stops at this many vertices, or when a matching no longer shrinks the graph by a quarter
+	private static final int COARSEST_SIZE = 50;
+	// Natural edge length grows by this factor per coarser level
+	private static final double LEVEL_SPACING = Math.sqrt(7.0 / 4.0);
+	// Pull towards the centre of mass that keeps disconnected components together
+	private static final double GRAVITY = 0.02;
+	private static final int GRAIN = 256;
+
+	private final ForkJoinPool pool;
+	private final float spacing;
+	private final int vertexCount;
+
+	// levels.get(0) is the input graph; parents.get(i) maps the vertices of level i to those of level i + 1
+	private final List<Graph> levels = new ArrayList<>();
+	private final List<int[]> parents = new ArrayList<>();
+	private int level;
+	// Vertex of the current level that each input vertex belongs to, or null on level 0
+	private int[] ancestor;
+
+	// State of the current level
+	private Graph graph;
+	private int n;
+	private double levelSpacing;
+	private double[] x;
+	private double[] y;
+	private double[] forceX;
+	private double[] forceY;
+	private double temperature;
+	private double finalTemperature;
+	private double cooling;
+	private int iteration;
+
+	// Quadtree in flat arrays: node i covers a square of side size[i]; inner nodes have up to four children
+	// at child[4 * i + q], leaves hold bodies[from[i], to[i])
+	private int[] bodies;
+	private double[] massX;
+	private double[] massY;
+	private int[] mass;
+	private double[] size;
+	private int[] child;
+	private int[] from;
+	private int[] to;
+	private int nodeCount;
+
+	public ForceLayout(Graph graph, float[] x, float[] y, float spacing) {
+		this(graph, x, y, spacing, ForkJoinPool.commonPool());
+	}
+
+	// Start from the positions x, y, which are copied; spacing is the preferred edge length
+	public ForceLayout(Graph graph, float[] x, float[] y, float spacing, ForkJoinPool pool) {
+		this.pool = pool;
+		this.spacing = spacing;
+		this.vertexCount = graph.vertexCount();
+		levels.add(graph);
+		while (graph.vertexCount() > COARSEST_SIZE) {
+			int[] parent = new int[graph.vertexCount()];
+			int coarse = match(graph, parent);
+			if (coarse > graph.vertexCount() * 3 / 4) {
+				break;
+			}
+			graph = contract(graph, parent, coarse);
+			levels.add(graph);
+			parents.add(parent);
+		}
+		level = levels.size() - 1;
+		ancestor = ancestors();
+
+		// The coarsest level starts at the centroid of the given positions of each of its clusters
+		int count = levels.get(level).vertexCount();
+		double[] startX = new double[count];
+		double[] startY = new double[count];
+		int[] members = new int[count];
+		for (int v = 0; v < vertexCount; v++) {
+			int a = ancestor == null ? v : ancestor[v];
+			startX[a] += x[v];
+			startY[a] += y[v];
+			members[a]++;
+		}
+		for (int a = 0; a < count; a++) {
+			startX[a] /= Math.max(members[a], 1);
+			startY[a] /= Math.max(members[a], 1);
+		}
+		enterLevel(startX, startY, 1 + Math.sqrt(count) / 10, COARSEST_COOLING);
+		bodies = new int[count];
+		int capacity = Math.max(16, vertexCount / 2);
+		massX = new double[capacity];
+		massY = new double[capacity];
+		mass = new int[capacity];
+		size = new double[capacity];
+		child = new int[4 * capacity];
+		from = new int[capacity];
+		to = new int[capacity];
+	}
+
+	// Make level the current one with the given positions; temperatures are in units of its natural edge length
+	private void enterLevel(double[] startX, double[] startY, double startTemperature, double cooling) {
+		graph = levels.get(level);
+		n = graph.vertexCount();
+		levelSpacing = spacing * Math.pow(LEVEL_SPACING, level);
+		x = startX;
+		y = startY;
+		forceX = new double[n];
+		forceY = new double[n];
+		temperature = levelSpacing * startTemperature;
+		finalTemperature = levelSpacing / 20;
+		this.cooling = cooling;
+		if (bodies != null && bodies.length < n) {
+			bodies = new int[n];
+		}
+	}
+
+	// Greedy matching in vertex order: each unmatched vertex pairs with its unmatched neighbour of least degree.
+	// Fills parent with the coarse vertex of every vertex and returns the coarse vertex count.
+	private static int match(Graph graph, int[] parent) {
+		int[] offsets = graph.offsets();
+		int[] adjTarget = graph.adjacentTargets();
+		Arrays.fill(parent, -1);
+		int count = 0;
+		for (int v = 0; v < parent.length; v++) {
+			if (parent[v] != -1) {
+				continue;
+			}
+			int partner = -1;
+			for (int s = offsets[v]; s < offsets[v + 1]; s++) {
+				int u = adjTarget[s];
+				if (u != v && parent[u] == -1 && (partner == -1 || graph.degree(u) < graph.degree(partner))) {
+					partner = u;
+				}
+			}
+			parent[v] = count;
+			if (partner != -1) {
+				parent[partner] = count;
+			}
+			count++;
+		}
+		return count;
+	}
+
+	// The graph of the clusters in parent, with one edge per fine edge between two clusters
+	private static Graph contract(Graph graph, int[] parent, int count) {
+		Graph.Builder builder = new Graph.Builder(graph.edgeCount());
+		builder.vertices(count);
+		for (int e = 0; e < graph.edgeCount(); e++) {
+			int u = parent[graph.source(e)];
+			int v = parent[graph.target(e)];
+			if (u != v) {
+				builder.addEdge(u, v, 1);
+			}
+		}
+		return builder.build();
+	}
+
+	// Map every input vertex to its cluster on the current level
+	private int[] ancestors() {
+		if (level == 0) {
+			return null;
+		}
+		int[] result = new int[vertexCount];
+		for (int v = 0; v < vertexCount; v++) {
+			int a = v;
+			for (int l = 0; l < level; l++) {
+				a = parents.get(l)[a];
+			}
+			result[v] = a;
+		}
+		return result;
+	}
+
+	// Place the vertices of the next finer level around their clusters and continue there
+	private void refine() {
+		int[] parent = parents.get(level - 1);
+		double[] fineX = new double[parent.length];
+		double[] fineY = new double[parent.length];
+		double jitter = levelSpacing / LEVEL_SPACING / 4;
+		for (int v = 0; v < parent.length; v++) {
+			// A fixed, id-dependent offset separates the two vertices of a matched pair
+			fineX[v] = x[parent[v]] + ((v & 1) == 0 ? jitter : -jitter);
+			fineY[v] = y[parent[v]] + ((v & 2) == 0 ? jitter : -jitter);
+		}
+		level--;
+		ancestor = ancestors();
+		enterLevel(fineX, fineY, 1, REFINE_COOLING);
+	}
+
+	// Vertices of the level currently being laid out, from the coarsest level down to the input graph at 0
+	public int level() {
+		return level;
+	}
+
+	public int iteration() {
+		return iteration;
+	}
+
+	public boolean isSettled() {
+		return level == 0 && temperature <= finalTemperature;
+	}
+
+	// Run one iteration; returns false, without moving anything, once the layout has settled
+	public boolean step() {
+		if (isSettled() || n == 0) {
+			return false;
+		}
+		if (temperature <= finalTemperature) {
+			refine();
+		}
+		buildTree();
+		double k = levelSpacing;
+		double k2 = k * k;
+		double centerX = massX[0];
+		double centerY = massY[0];
+		int[] offsets = graph.offsets();
+		int[] adjTarget = graph.adjacentTargets();
+		pool.invoke(new ParallelMst.RangeTask(0, n, GRAIN, (start, end) -> {
+			int[] stack = new int[4 * MAX_DEPTH + 4];
+			for (int v = start; v < end; v++) {
+				double fx = 0;
+				double fy = 0;
+
+				// Repulsion k^2 / d from every other vertex, through the quadtree
+				int top = 0;
+				stack[top++] = 0;
+				while (top > 0) {
+					int node = stack[--top];
+					double dx = x[v] - massX[node];
+					double dy = y[v] - massY[node];
+					double d2 = dx * dx + dy * dy;
+					if (child[4 * node] == -2) {
+						for (int i = from[node]; i < to[node]; i++) {
+							int u = bodies[i];
+							if (u == v) {
+								continue;
+							}
+							double bx = x[v] - x[u];
+							double by = y[v] - y[u];
+							double b2 = bx * bx + by * by;
+							if (b2 < 1e-6) {
+								// Coincident vertices: separate them in a direction fixed by their ids
+								bx = (v - u) * 1e-3 * k;
+								by = (u - v) * 7e-4 * k;
+								b2 = bx * bx + by * by;
+							}
+							fx += bx * k2 / b2;
+							fy += by * k2 / b2;
+						}
+					} else if (size[node] * size[node] < THETA * THETA * d2) {
+						fx += dx * k2 * mass[node] / d2;
+						fy += dy * k2 * mass[node] / d2;
+					} else {
+						for (int q = 0; q < 4; q++) {
+							int c = child[4 * node + q];
+							if (c >= 0) {
+								stack[top++] = c;
+							}
+						}
+					}
+				}
+
+				// Attraction d^2 / k along every incident edge
+				for (int s = offsets[v]; s < offsets[v + 1]; s++) {
+					int u = adjTarget[s];
+					double dx = x[u] - x[v];
+					double dy = y[u] - y[v];
+					double d = Math.sqrt(dx * dx + dy * dy);
+					fx += dx * d / k;
+					fy += dy * d / k;
+				}
+
+				fx += (centerX - x[v]) * GRAVITY;
+				fy += (centerY - y[v]) * GRAVITY;
+				forceX[v] = fx;
+				forceY[v] = fy;
+			}
+		}));
+
+		// Move every vertex along its force, by at most the temperature
+		double limit = temperature;
+		pool.invoke(new ParallelMst.RangeTask(0, n, GRAIN * 16, (start, end) -> {
+			for (int v = start; v < end; v++) {
+				double length = Math.sqrt(forceX[v] * forceX[v] + forceY[v] * forceY[v]);
+				if (length > 0) {
+					double move = Math.min(length, limit) / length;
+					x[v] += forceX[v] * move;
+					y[v] += forceY[v] * move;
+				}
+			}
+		}));
+		temperature *= cooling;
+		iteration++;
+		return true;
+	}
+
+	// Copy the positions of the input vertices out, e.g. to hand them to a view.
+	// While a coarser level is being laid out, every vertex is placed at its cluster.
+	public void positions(float[] xOut, float[] yOut) {
+		for (int v = 0; v < vertexCount; v++) {
+			int a = ancestor == null ? v : ancestor[v];
+			xOut[v] = (float) x[a];
+			yOut[v] = (float) y[a];
+		}
+	}
+
+	// Quadtree over all vertices, built by partitioning the body array in place quadrant by quadrant
+	private void buildTree() {
+		double minX = Double.MAX_VALUE;
+		double minY = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE;
+		double maxY = -Double.MAX_VALUE;
+		for (int v = 0; v < n; v++) {
+			bodies[v] = v;
+			minX = Math.min(minX, x[v]);
+			minY = Math.min(minY, y[v]);
+			maxX = Math.max(maxX, x[v]);
+			maxY = Math.max(maxY, y[v]);
+		}
+		double side = Math.max(Math.max(maxX - minX, maxY - minY), 1e-6);
+		nodeCount = 0;
+		build(0, n, minX, minY, side, 0);
+	}
+
+	private int build(int start, int end, double left, double top, double side, int depth) {
+		int node = newNode();
+		size[node] = side;
+		if (end - start <= LEAF_SIZE || depth == MAX_DEPTH) {
+			child[4 * node] = -2; // leaf marker
+			from[node] = start;
+			to[node] = end;
+			double sumX = 0;
+			double sumY = 0;
+			for (int i = start; i < end; i++) {
+				sumX += x[bodies[i]];
+				sumY += y[bodies[i]];
+			}
+			massX[node] = sumX / (end - start);
+			massY[node] = sumY / (end - start);
+			mass[node] = end - start;
+			return node;
+		}
+
+		// Split into quadrants: left/right by x, then top/bottom by y within each half
+		double half = side / 2;
+		int midX = partition(start, end, x, left + half);
+		int upperLeft = partition(start, midX, y, top + half);
+		int upperRight = partition(midX, end, y, top + half);
+		int[] bounds = {start, upperLeft, midX, upperRight, end};
+		double sumX = 0;
+		double sumY = 0;
+		for (int q = 0; q < 4; q++) {
+			int c = -1;
+			if (bounds[q] < bounds[q + 1]) {
+				c = build(bounds[q], bounds[q + 1], left + (q >= 2 ? half : 0), top + (q % 2 == 1 ? half : 0), half,
+						depth + 1);
+				sumX += massX[c] * mass[c];
+				sumY += massY[c] * mass[c];
+			}
+			child[4 * node + q] = c;
+		}
+		massX[node] = sumX / (end - start);
+		massY[node] = sumY / (end - start);
+		mass[node] = end - start;
+		return node;
+	}
+
+	// Move bodies with coordinate below pivot to the front of [start, end) and return where the rest begin
+	private int partition(int start, int end, double[] coordinate, double pivot) {
+		int i = start;
+		int j = end - 1;
+		while (i <= j) {
+			if (coordinate[bodies[i]] < pivot) {
+				i++;
+			} else {
+				int t = bodies[i];
+				bodies[i] = bodies[j];
+				bodies[j--] = t;
+			}
+		}
+		return i;
+	}
+
+	private int newNode() {
+		if (nodeCount == mass.length) {
+			int capacity = nodeCount * 2;
+			massX = Arrays.copyOf(massX, capacity);
+			massY = Arrays.copyOf(massY, capacity);
+			mass = Arrays.copyOf(mass, capacity);
+			size = Arrays.copyOf(size, capacity);
+			child = Arrays.copyOf(child, 4 * capacity);
+			from = Arrays.copyOf(from, capacity);
+			to = Arrays.copyOf(to, capacity);
+		}
+		return nodeCount++;
+	}
+}
@@ -0,0 +1,440 @@
+package mst;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// Immutable undirected graph stored in compressed-sparse-row form.
+// Vertices are interned to dense int ids and every edge has an id in [0, edgeCount()).
+// Each edge appears twice in the adjacency arrays, once from each endpoint.
+// Weights are longs; a graph with double weights stores them as the order-preserving keys of Weights.
+public final class Graph {
+	// Repair a cached edge order only while at most 1/REPAIR_FRACTION of the weights changed
+	private static final int REPAIR_FRACTION = 16;
+
+	private final String[] names;
+	private final int idBase;
+	private final Map<String, Integer> ids;
+
+	private final int vertexCount;
+	private final int edgeCount;
+	private final int[] edgeSource;
+	private final int[] edgeTarget;
+	private final long[] edgeWeight;
+	private final boolean doubleWeights;
+
+	private final int[] offsets;   // vertexCount + 1 entries
+	private final int[] adjTarget; // 2 * edgeCount entries
+	private final int[] adjEdge;   // 2 * edgeCount entries
+
+	// Edge ids by (weight, id), built on first use and carried over to graphs made by withWeights
+	private volatile int[] edgesByWeight;
+	// contentHash(), or 0 until it is first asked for
+	private volatile long contentHash;
+
+	private Graph(Builder builder) {
+		this.vertexCount = builder.vertexCount;
+		this.edgeCount = builder.edgeCount;
+		this.names = builder.names == null ? null : Arrays.copyOf(builder.names, vertexCount);
+		this.idBase = builder.idBase;
+		this.ids = builder.ids.isEmpty() ? Collections.emptyMap() : new HashMap<>(builder.ids);
+		this.edgeSource = Arrays.copyOf(builder.source, edgeCount);
+		this.edgeTarget = Arrays.copyOf(builder.target, edgeCount);
+		this.edgeWeight = Arrays.copyOf(builder.weight, edgeCount);
+		this.doubleWeights = builder.doubleWeights;
+
+		// Counting pass: degree of every vertex, then prefix sums into offsets
+		offsets = new int[vertexCount + 1];
+		for (int e = 0; e < edgeCount; e++) {
+			offsets[edgeSource[e] + 1]++;
+			offsets[edgeTarget[e] + 1]++;
+		}
+		for (int v = 0; v < vertexCount; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+
+		// Scatter pass: place both directions of each edge
+		adjTarget = new int[2 * edgeCount];
+		adjEdge = new int[2 * edgeCount];
+		int[] next = Arrays.copyOf(offsets, vertexCount);
+		for (int e = 0; e < edgeCount; e++) {
+			int u = edgeSource[e];
+			int v = edgeTarget[e];
+			int slot = next[u]++;
+			adjTarget[slot] = v;
+			adjEdge[slot] = e;
+			slot = next[v]++;
+			adjTarget[slot] = u;
+			adjEdge[slot] = e;
+		}
+	}
+
+	private Graph(String[] names, int idBase, int[] edgeSource, int[] edgeTarget, long[] edgeWeight, boolean doubleWeights,
+	              int[] offsets, int[] adjTarget, int[] adjEdge) {
+		this.vertexCount = offsets.length - 1;
+		this.edgeCount = edgeSource.length;
+		this.names = names;
+		this.idBase = idBase;
+		Map<String, Integer> ids = new HashMap<>();
+		if (names != null) {
+			for (int v = 0; v < names.length; v++) {
+				if (names[v] != null) {
+					ids.put(names[v], v);
+				}
+			}
+		}
+		this.ids = ids.isEmpty() ? Collections.emptyMap() : ids;
+		this.edgeSource = edgeSource;
+		this.edgeTarget = edgeTarget;
+		this.edgeWeight = edgeWeight;
+		this.doubleWeights = doubleWeights;
+		this.offsets = offsets;
+		this.adjTarget = adjTarget;
+		this.adjEdge = adjEdge;
+	}
+
+	// Same vertices and edges as base with new weights; the topology arrays are shared
+	private Graph(Graph base, long[] edgeWeight) {
+		this.vertexCount = base.vertexCount;
+		this.edgeCount = base.edgeCount;
+		this.names = base.names;
+		this.idBase = base.idBase;
+		this.ids = base.ids;
+		this.edgeSource = base.edgeSource;
+		this.edgeTarget = base.edgeTarget;
+		this.edgeWeight = edgeWeight;
+		this.doubleWeights = base.doubleWeights;
+		this.offsets = base.offsets;
+		this.adjTarget = base.adjTarget;
+		this.adjEdge = base.adjEdge;
+	}
+
+	// Wrap arrays that already form a valid CSR graph, e.g. read from a binary graph file.
+	// The arrays are adopted, not copied; names may be null for unnamed vertices.
+	static Graph fromCsr(String[] names, int idBase, int[] edgeSource, int[] edgeTarget, long[] edgeWeight,
+	                     boolean doubleWeights, int[] offsets, int[] adjTarget, int[] adjEdge) {
+		return new Graph(names, idBase, edgeSource, edgeTarget, edgeWeight, doubleWeights, offsets, adjTarget, adjEdge);
+	}
+
+	// True if other has the same vertices and edges as this graph because one was made from the other by withWeights
+	public boolean sharesTopology(Graph other) {
+		return other != null && other.edgeSource == edgeSource && other.edgeTarget == edgeTarget && other.offsets == offsets;
+	}
+
+	// Hash of the vertex count, the edges and their weights, computed once per graph; names are left out.
+	// Equal graphs hash alike whether or not they share arrays.
+	public long contentHash() {
+		long hash = contentHash;
+		if (hash == 0) {
+			hash = vertexCount * 0x9E3779B97F4A7C15L + (doubleWeights ? 1 : 0);
+			for (int e = 0; e < edgeCount; e++) {
+				hash = (hash ^ ((long) edgeSource[e] << 32 | (edgeTarget[e] & 0xFFFFFFFFL))) * 0x9E3779B97F4A7C15L;
+				hash = (hash ^ edgeWeight[e]) * 0xC2B2AE3D27D4EB4FL;
+			}
+			hash ^= hash >>> 31;
+			contentHash = hash;
+		}
+		return hash;
+	}
+
+	// True if other has the same vertices, names, edges and weights, in the same order
+	public boolean sameContent(Graph other) {
+		if (other == this) {
+			return true;
+		}
+		if (other == null || other.vertexCount != vertexCount || other.edgeCount != edgeCount
+				|| other.doubleWeights != doubleWeights || other.idBase != idBase) {
+			return false;
+		}
+		if (!sharesTopology(other) && (!Arrays.equals(other.edgeSource, edgeSource) || !Arrays.equals(other.edgeTarget, edgeTarget))) {
+			return false;
+		}
+		return Arrays.equals(other.edgeWeight, edgeWeight) && Arrays.equals(other.names, names);
+	}
+
+	// This graph with edge e weighing weights[e], given as keys for double weights. Returns this graph when no weight differs, so its sorted
+	// edge order stays cached; when only a few differ, the new graph repairs that order instead of re-sorting.
+	public Graph withWeights(long[] weights) {
+		if (weights.length != edgeCount) {
+			throw new IllegalArgumentException("Expected " + edgeCount + " weights, got " + weights.length);
+		}
+		int[] changed = new int[16];
+		int changedCount = 0;
+		for (int e = 0; e < edgeCount; e++) {
+			if (weights[e] != edgeWeight[e]) {
+				if (changedCount == changed.length) {
+					changed = Arrays.copyOf(changed, changedCount * 2);
+				}
+				changed[changedCount++] = e;
+			}
+		}
+		if (changedCount == 0) {
+			return this;
+		}
+		Graph graph = new Graph(this, weights.clone());
+		int[] order = edgesByWeight;
+		if (order != null && changedCount <= edgeCount / REPAIR_FRACTION) {
+			graph.edgesByWeight = EdgeOrder.repair(order, edgeWeight, graph.edgeWeight, changed, changedCount);
+		}
+		return graph;
+	}
+
+	public int vertexCount() {
+		return vertexCount;
+	}
+
+	public int edgeCount() {
+		return edgeCount;
+	}
+
+	public int source(int edge) {
+		return edgeSource[edge];
+	}
+
+	public int target(int edge) {
+		return edgeTarget[edge];
+	}
+
+	// The weight of edge, or for double weights its key, which compares like the double does
+	public long weight(int edge) {
+		return edgeWeight[edge];
+	}
+
+	public boolean hasDoubleWeights() {
+		return doubleWeights;
+	}
+
+	public double doubleWeight(int edge) {
+		return doubleWeights ? Weights.decode(edgeWeight[edge]) : edgeWeight[edge];
+	}
+
+	public String weightText(int edge) {
+		return Weights.format(edgeWeight[edge], doubleWeights);
+	}
+
+	// The endpoint of edge that is not vertex
+	public int opposite(int edge, int vertex) {
+		return edgeSource[edge] == vertex ? edgeTarget[edge] : edgeSource[edge];
+	}
+
+	public int degree(int vertex) {
+		return offsets[vertex + 1] - offsets[vertex];
+	}
+
+	// Raw CSR arrays, shared with the algorithms. Callers must not modify them.
+	int[] offsets() {
+		return offsets;
+	}
+
+	int[] adjacentTargets() {
+		return adjTarget;
+	}
+
+	int[] adjacentEdges() {
+		return adjEdge;
+	}
+
+	int[] sources() {
+		return edgeSource;
+	}
+
+	int[] targets() {
+		return edgeTarget;
+	}
+
+	long[] weights() {
+		return edgeWeight;
+	}
+
+	// Edge ids sorted by (weight, id), computed once per graph. Callers must not modify the array.
+	int[] edgesByWeight() {
+		int[] order = edgesByWeight;
+		if (order == null) {
+			order = EdgeOrder.sort(edgeWeight);
+			edgesByWeight = order;
+		}
+		return order;
+	}
+
+	// The sorted order if it has been computed, without computing it
+	int[] cachedEdgesByWeight() {
+		return edgesByWeight;
+	}
+
+	int idBase() {
+		return idBase;
+	}
+
+	// Name given to the vertex when the graph was built, or null for unnamed vertices
+	String explicitName(int vertex) {
+		return names == null ? null : names[vertex];
+	}
+
+	boolean hasNames() {
+		return names != null;
+	}
+
+	public String name(int vertex) {
+		String name = names == null ? null : names[vertex];
+		return name != null ? name : Integer.toString(vertex + idBase);
+	}
+
+	// Id of a named vertex, or -1 if the graph has no vertex with that name
+	public int vertexId(String name) {
+		Integer id = ids.get(name);
+		return id == null ? -1 : id;
+	}
+
+	public static final class Builder {
+		private final Map<String, Integer> ids = new HashMap<>();
+		private String[] names;
+		private int idBase;
+		private int vertexCount;
+
+		private int[] source;
+		private int[] target;
+		private long[] weight;
+		private int edgeCount;
+		private boolean doubleWeights;
+
+		public Builder() {
+			this(16);
+		}
+
+		public Builder(int expectedEdges) {
+			int capacity = Math.max(expectedEdges, 1);
+			source = new int[capacity];
+			target = new int[capacity];
+			weight = new long[capacity];
+		}
+
+		// Display offset for unnamed vertices, e.g. 1 for formats with 1-based ids
+		public Builder idBase(int base) {
+			this.idBase = base;
+			return this;
+		}
+
+		// Ensure vertices [0, count) exist without giving them names
+		public Builder vertices(int count) {
+			if (count > vertexCount) {
+				vertexCount = count;
+			}
+			return this;
+		}
+
+		// Grow the edge arrays so at least expectedEdges fit without further copying
+		public Builder ensureCapacity(int expectedEdges) {
+			if (expectedEdges > source.length) {
+				source = Arrays.copyOf(source, expectedEdges);
+				target = Arrays.copyOf(target, expectedEdges);
+				weight = Arrays.copyOf(weight, expectedEdges);
+			}
+			return this;
+		}
+
+		// Shift unnamed vertex ids down by base so the smallest one becomes 0, keeping their displayed ids
+		Builder rebase(int base) {
+			if (base <= 0) {
+				return this;
+			}
+			if (names != null) {
+				throw new IllegalStateException("Cannot rebase named vertices");
+			}
+			for (int e = 0; e < edgeCount; e++) {
+				source[e] -= base;
+				target[e] -= base;
+			}
+			vertexCount -= base;
+			idBase += base;
+			return this;
+		}
+
+		// Intern a vertex name, returning its dense id
+		public int addVertex(String name) {
+			Integer id = ids.get(name);
+			if (id != null) {
+				return id;
+			}
+			int v = vertexCount++;
+			if (names == null) {
+				names = new String[Math.max(16, vertexCount)];
+			} else if (v >= names.length) {
+				names = Arrays.copyOf(names, Math.max(names.length * 2, vertexCount));
+			}
+			names[v] = name;
+			ids.put(name, v);
+			return v;
+		}
+
+		// Name an existing vertex without looking the name up first; used by MutableGraph snapshots
+		Builder name(int vertex, String name) {
+			if (names == null) {
+				names = new String[Math.max(16, vertexCount)];
+			} else if (vertex >= names.length) {
+				names = Arrays.copyOf(names, Math.max(names.length * 2, vertexCount));
+			}
+			names[vertex] = name;
+			ids.put(name, vertex);
+			return this;
+		}
+
+		// Store weights as doubles from now on, converting those added so far
+		public Builder doubleWeights() {
+			if (!doubleWeights) {
+				for (int e = 0; e < edgeCount; e++) {
+					weight[e] = Weights.encode(weight[e]);
+				}
+				doubleWeights = true;
+			}
+			return this;
+		}
+
+		public int addEdge(String from, String to, long w) {
+			return addEdge(addVertex(from), addVertex(to), w);
+		}
+
+		public int addEdge(int from, int to, long w) {
+			return addKey(from, to, doubleWeights ? Weights.encode(w) : w);
+		}
+
+		// A fractional weight switches the builder to double weights
+		public int addEdge(String from, String to, double w) {
+			return addEdge(addVertex(from), addVertex(to), w);
+		}
+
+		public int addEdge(int from, int to, double w) {
+			doubleWeights();
+			return addKey(from, to, Weights.encode(w));
+		}
+
+		// Add an edge whose weight is already in the builder's representation
+		int addKey(int from, int to, long w) {
+			if (from < 0 || to < 0) {
+				throw new IllegalArgumentException("Negative vertex id: " + from + " - " + to);
+			}
+			if (edgeCount == source.length) {
+				int capacity = source.length + (source.length >> 1) + 1;
+				source = Arrays.copyOf(source, capacity);
+				target = Arrays.copyOf(target, capacity);
+				weight = Arrays.copyOf(weight, capacity);
+			}
+			source[edgeCount] = from;
+			target[edgeCount] = to;
+			weight[edgeCount] = w;
+			vertices(Math.max(from, to) + 1);
+			return edgeCount++;
+		}
+
+		public int edgeCount() {
+			return edgeCount;
+		}
+
+		public Graph build() {
+			if (names != null && names.length < vertexCount) {
+				names = Arrays.copyOf(names, vertexCount);
+			}
+			return new Graph(this);
+		}
+	}
+}
@@ -0,0 +1,380 @@
+package mst;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Versioned binary graph format that can be memory-mapped and read without parsing.
+//
+// Layout (little-endian, every section starts on an 8-byte boundary):
+//   header     magic "MSTG", int version, int flags, int vertexCount, int edgeCount, int idBase, 8 reserved bytes
+//   int[n + 1] CSR offsets
+//   int[2m]    CSR adjacent targets
+//   int[2m]    CSR adjacent edge ids
+//   int[m]     edge sources
+//   int[m]     edge targets
+//   long[m]    edge weights, as Weights keys with flag DOUBLE_WEIGHTS
+//   optional name table (flag HAS_NAMES): int[n + 1] byte offsets into a UTF-8 blob, then the blob
+//
+// map() exposes the sections as IntBuffer/LongBuffer views over the mapping, without copying.
+// load() turns them into a Graph with one bulk copy per array and no CSR rebuild.
+public final class GraphFile {
+	static final int MAGIC = 0x4753544D; // "MSTG" read as a little-endian int
+	static final int VERSION = 1;
+	static final int HAS_NAMES = 1;
+	static final int DOUBLE_WEIGHTS = 2;
+	static final int HEADER_BYTES = 32;
+
+	private GraphFile() {
+	}
+
+	// True if the file starts with the binary graph magic
+	public static boolean isGraphFile(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer head = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			return channel.read(head) == 4 && head.getInt(0) == MAGIC;
+		}
+	}
+
+	public static void write(Graph graph, Path file) throws IOException {
+		int n = graph.vertexCount();
+		int m = graph.edgeCount();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			Writer out = new Writer(channel);
+			out.putInt(MAGIC);
+			out.putInt(VERSION);
+			out.putInt((graph.hasNames() ? HAS_NAMES : 0) | (graph.hasDoubleWeights() ? DOUBLE_WEIGHTS : 0));
+			out.putInt(n);
+			out.putInt(m);
+			out.putInt(graph.idBase());
+			out.putLong(0);
+
+			out.putInts(graph.offsets(), n + 1);
+			out.putInts(graph.adjacentTargets(), 2 * m);
+			out.putInts(graph.adjacentEdges(), 2 * m);
+			out.putInts(graph.sources(), m);
+			out.putInts(graph.targets(), m);
+			out.align();
+			for (long w : graph.weights()) {
+				out.putLong(w);
+			}
+
+			if (graph.hasNames()) {
+				byte[][] encoded = new byte[n][];
+				int offset = 0;
+				out.putInt(0);
+				for (int v = 0; v < n; v++) {
+					String name = graph.explicitName(v);
+					encoded[v] = name == null ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+					offset += encoded[v].length;
+					out.putInt(offset);
+				}
+				out.align();
+				for (byte[] bytes : encoded) {
+					out.putBytes(bytes);
+				}
+			}
+			out.flush();
+		}
+	}
+
+	public static Graph load(Path file) throws IOException {
+		return map(file).toGraph();
+	}
+
+	public static MappedGraph map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < HEADER_BYTES) {
+				throw new IOException(file + ": too short for a binary graph file");
+			}
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			if (header.getInt(0) != MAGIC) {
+				throw new IOException(file + ": not a binary graph file");
+			}
+			int version = header.getInt(4);
+			if (version != VERSION) {
+				throw new IOException(file + ": unsupported binary graph version " + version);
+			}
+			int flags = header.getInt(8);
+			int n = header.getInt(12);
+			int m = header.getInt(16);
+			int idBase = header.getInt(20);
+			if (n < 0 || m < 0) {
+				throw new IOException(file + ": corrupt binary graph file, " + n + " vertices and " + m + " edges");
+			}
+
+			// The mapping stays valid after the channel is closed
+			Sections sections = new Sections(channel, HEADER_BYTES, size, file);
+			IntBuffer offsets = sections.ints(n + 1L);
+			IntBuffer adjTarget = sections.ints(2L * m);
+			IntBuffer adjEdge = sections.ints(2L * m);
+			IntBuffer source = sections.ints(m);
+			IntBuffer target = sections.ints(m);
+			LongBuffer weight = sections.longs(m);
+			IntBuffer nameOffsets = null;
+			ByteBuffer nameBytes = null;
+			if ((flags & HAS_NAMES) != 0) {
+				nameOffsets = sections.ints(n + 1L);
+				checkOffsets(nameOffsets, "name offsets", file);
+				nameBytes = sections.bytes(nameOffsets.get(n));
+			}
+			int adjacent = checkOffsets(offsets, "offsets", file);
+			if (adjacent != 2L * m) {
+				throw new IOException(file + ": corrupt binary graph file, offsets end at " + adjacent + " instead of " + 2L * m);
+			}
+			checkIds(adjTarget, n, "adjacent target", file);
+			checkIds(adjEdge, m, "adjacent edge", file);
+			checkIds(source, n, "edge source", file);
+			checkIds(target, n, "edge target", file);
+			return new MappedGraph(n, m, idBase, offsets, adjTarget, adjEdge, source, target, weight,
+					(flags & DOUBLE_WEIGHTS) != 0, nameOffsets, nameBytes);
+		}
+	}
+
+	// A file that is truncated or corrupt but long enough would otherwise fail later, with an index error
+	// deep inside the algorithms. These checks read every section once.
+
+	// offsets must start at 0 and never decrease; returns the last one
+	private static int checkOffsets(IntBuffer offsets, String section, Path file) throws IOException {
+		int previous = 0;
+		for (int i = 0; i < offsets.capacity(); i++) {
+			int offset = offsets.get(i);
+			if ((i == 0 && offset != 0) || offset < previous) {
+				throw new IOException(file + ": corrupt binary graph file, " + section + " out of order at " + i);
+			}
+			previous = offset;
+		}
+		return previous;
+	}
+
+	// Every id in ids must be in [0, limit)
+	private static void checkIds(IntBuffer ids, int limit, String section, Path file) throws IOException {
+		for (int i = 0; i < ids.capacity(); i++) {
+			int id = ids.get(i);
+			if (id < 0 || id >= limit) {
+				throw new IOException(file + ": corrupt binary graph file, " + section + " " + id + " at " + i
+						+ " outside [0, " + limit + ")");
+			}
+		}
+	}
+
+	// A graph file mapped into memory; every accessor is a view over the mapping
+	public static final class MappedGraph {
+		private final int vertexCount;
+		private final int edgeCount;
+		private final int idBase;
+		private final IntBuffer offsets;
+		private final IntBuffer adjTarget;
+		private final IntBuffer adjEdge;
+		private final IntBuffer source;
+		private final IntBuffer target;
+		private final LongBuffer weight;
+		private final boolean doubleWeights;
+		private final IntBuffer nameOffsets;
+		private final ByteBuffer nameBytes;
+
+		MappedGraph(int vertexCount, int edgeCount, int idBase, IntBuffer offsets, IntBuffer adjTarget, IntBuffer adjEdge,
+		            IntBuffer source, IntBuffer target, LongBuffer weight, boolean doubleWeights, IntBuffer nameOffsets,
+		            ByteBuffer nameBytes) {
+			this.vertexCount = vertexCount;
+			this.edgeCount = edgeCount;
+			this.idBase = idBase;
+			this.offsets = offsets;
+			this.adjTarget = adjTarget;
+			this.adjEdge = adjEdge;
+			this.source = source;
+			this.target = target;
+			this.weight = weight;
+			this.doubleWeights = doubleWeights;
+			this.nameOffsets = nameOffsets;
+			this.nameBytes = nameBytes;
+		}
+
+		public int vertexCount() {
+			return vertexCount;
+		}
+
+		public int edgeCount() {
+			return edgeCount;
+		}
+
+		public IntBuffer offsets() {
+			return offsets.duplicate();
+		}
+
+		public IntBuffer adjacentTargets() {
+			return adjTarget.duplicate();
+		}
+
+		public IntBuffer adjacentEdges() {
+			return adjEdge.duplicate();
+		}
+
+		public IntBuffer sources() {
+			return source.duplicate();
+		}
+
+		public IntBuffer targets() {
+			return target.duplicate();
+		}
+
+		// Weights keys when hasDoubleWeights(), see Weights.decode
+		public LongBuffer weights() {
+			return weight.duplicate();
+		}
+
+		public boolean hasDoubleWeights() {
+			return doubleWeights;
+		}
+
+		public String name(int vertex) {
+			if (nameOffsets != null) {
+				int start = nameOffsets.get(vertex);
+				int end = nameOffsets.get(vertex + 1);
+				if (end > start) {
+					byte[] bytes = new byte[end - start];
+					nameBytes.duplicate().position(start).get(bytes);
+					return new String(bytes, StandardCharsets.UTF_8);
+				}
+			}
+			return Integer.toString(vertex + idBase);
+		}
+
+		// Copy the views into heap arrays for the algorithms; one bulk get per array
+		public Graph toGraph() {
+			String[] names = null;
+			if (nameOffsets != null) {
+				names = new String[vertexCount];
+				for (int v = 0; v < vertexCount; v++) {
+					if (nameOffsets.get(v + 1) > nameOffsets.get(v)) {
+						names[v] = name(v);
+					}
+				}
+			}
+			return Graph.fromCsr(names, idBase, copy(source), copy(target), copy(weight), doubleWeights,
+					copy(offsets), copy(adjTarget), copy(adjEdge));
+		}
+
+		private static int[] copy(IntBuffer buffer) {
+			int[] array = new int[buffer.capacity()];
+			buffer.duplicate().clear().get(array);
+			return array;
+		}
+
+		private static long[] copy(LongBuffer buffer) {
+			long[] array = new long[buffer.capacity()];
+			buffer.duplicate().clear().get(array);
+			return array;
+		}
+	}
+
+	// Maps consecutive 8-byte aligned sections of the file
+	private static final class Sections {
+		private final FileChannel channel;
+		private final long size;
+		private final Path file;
+		private long position;
+
+		Sections(FileChannel channel, long position, long size, Path file) {
+			this.channel = channel;
+			this.position = position;
+			this.size = size;
+			this.file = file;
+		}
+
+		IntBuffer ints(long count) throws IOException {
+			return bytes(count * Integer.BYTES).asIntBuffer();
+		}
+
+		LongBuffer longs(long count) throws IOException {
+			return bytes(count * Long.BYTES).asLongBuffer();
+		}
+
+		ByteBuffer bytes(long length) throws IOException {
+			if (length > Integer.MAX_VALUE) {
+				throw new IOException(file + ": section of " + length + " bytes exceeds the 2 GB mapping limit");
+			}
+			if (position + length > size) {
+				throw new IOException(file + ": truncated binary graph file");
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			position = (position + length + 7) & ~7L;
+			return buffer;
+		}
+	}
+
+	// Buffered little-endian writer that keeps every section 8-byte aligned
+	private static final class Writer {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+		private long written;
+
+		Writer(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		void putInt(int value) throws IOException {
+			ensure(Integer.BYTES);
+			buffer.putInt(value);
+		}
+
+		void putLong(long value) throws IOException {
+			ensure(Long.BYTES);
+			buffer.putLong(value);
+		}
+
+		// A whole int section, padded to the next 8-byte boundary
+		void putInts(int[] values, int count) throws IOException {
+			int done = 0;
+			while (done < count) {
+				ensure(Integer.BYTES);
+				int chunk = Math.min(count - done, buffer.remaining() / Integer.BYTES);
+				buffer.asIntBuffer().put(values, done, chunk);
+				buffer.position(buffer.position() + chunk * Integer.BYTES);
+				done += chunk;
+			}
+			align();
+		}
+
+		void putBytes(byte[] bytes) throws IOException {
+			int done = 0;
+			while (done < bytes.length) {
+				ensure(1);
+				int chunk = Math.min(bytes.length - done, buffer.remaining());
+				buffer.put(bytes, done, chunk);
+				done += chunk;
+			}
+		}
+
+		void align() throws IOException {
+			while (((written + buffer.position()) & 7) != 0) {
+				ensure(1);
+				buffer.put((byte) 0);
+			}
+		}
+
+		private void ensure(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				flush();
+			}
+		}
+
+		void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				written += channel.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+}
@@ -0,0 +1,593 @@
+package mst;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Loads graphs from text files by parsing a memory-mapped FileChannel byte by byte.
+// Mapped bytes are bulk-copied through one reusable block and numbers are parsed from it straight
+// into the Graph.Builder arrays (or another EdgeSink), with no String per line.
+// The file is mapped in windows, so files larger than the heap (or than 2 GB) load as well.
+//
+// Supported formats:
+//   DIMACS (.gr, .col)    "p sp n m" header, "a u v w" arcs or "e u v [w]" edges, 1-based ids
+//   Matrix Market (.mtx)  "%%MatrixMarket matrix coordinate ..." with "i j [value]" entries, 1-based ids
+//   Edge list (other)     "u v [w]" per line with integer ids; named vertices fall back to a String reader
+//   Points (.xy)          "x y" per line, separated by spaces or a comma; loaded as the candidate graph of
+//                         their Euclidean MST, see EuclideanMst
+// Weights are integers until the first fractional one, which turns the graph's weights into doubles.
+// Binary graph files (GraphFile) are recognised by their magic number and loaded without parsing.
+public final class GraphLoader {
+	public enum Format {
+		DIMACS, MATRIX_MARKET, EDGE_LIST, POINTS, BINARY
+	}
+
+	static final long DEFAULT_WINDOW = 256L << 20;
+	private static final int BLOCK = 1 << 20;
+
+	private GraphLoader() {
+	}
+
+	public static Graph load(Path file) throws IOException {
+		return load(file, detect(file));
+	}
+
+	public static Graph load(Path file, Format format) throws IOException {
+		return load(file, format, DEFAULT_WINDOW);
+	}
+
+	static Graph load(Path file, Format format, long window) throws IOException {
+		if (format == Format.BINARY) {
+			return GraphFile.load(file);
+		}
+		if (format == Format.POINTS) {
+			return EuclideanMst.candidateGraph(readPoints(file, window));
+		}
+		Graph.Builder builder = new Graph.Builder();
+		if (!parse(file, format, sink(builder), window)) {
+			return readNamedEdgeList(file);
+		}
+		return builder.build();
+	}
+
+	// The points of a .xy file in file order, parsed like the edge formats
+	public static EuclideanMst.Points readPoints(Path file) throws IOException {
+		return readPoints(file, DEFAULT_WINDOW);
+	}
+
+	static EuclideanMst.Points readPoints(Path file, long window) throws IOException {
+		PointParser parser = new PointParser();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			parse(channel, parser, window);
+		}
+		return parser.points();
+	}
+
+	// Stream the edges of a text file into sink; false if its vertices are named, which only
+	// readNamedEdgeList reads. The sink may have received edges by then.
+	static boolean parse(Path file, Format format, EdgeSink sink, long window) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			LineParser parser;
+			switch (format) {
+				case DIMACS:
+					parser = new DimacsParser(sink);
+					break;
+				case MATRIX_MARKET:
+					parser = new MatrixMarketParser(sink);
+					break;
+				default:
+					parser = new EdgeListParser(sink);
+			}
+			try {
+				parse(channel, parser, window);
+			} catch (NamedVertexException e) {
+				return false;
+			}
+			parser.finish();
+		}
+		return true;
+	}
+
+	// Pick a format by extension, then by the first bytes of the file
+	public static Format detect(Path file) throws IOException {
+		if (GraphFile.isGraphFile(file)) {
+			return Format.BINARY;
+		}
+		String name = file.getFileName().toString().toLowerCase();
+		if (name.endsWith(".gr") || name.endsWith(".col")) {
+			return Format.DIMACS;
+		}
+		if (name.endsWith(".mtx")) {
+			return Format.MATRIX_MARKET;
+		}
+		if (name.endsWith(".xy")) {
+			return Format.POINTS;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer head = ByteBuffer.allocate(16);
+			channel.read(head);
+			String start = new String(head.array(), 0, head.position(), StandardCharsets.US_ASCII);
+			if (start.startsWith("%%MatrixMarket")) {
+				return Format.MATRIX_MARKET;
+			}
+			if (start.startsWith("c ") || start.startsWith("p ")) {
+				return Format.DIMACS;
+			}
+		}
+		return Format.EDGE_LIST;
+	}
+
+	// Map the file window by window, copy it through a reusable block and hand each complete line to the parser
+	private static void parse(FileChannel channel, LineParser parser, long window) throws IOException {
+		long size = channel.size();
+		byte[] block = new byte[BLOCK];
+		int carry = 0;
+		long lineNumber = 0;
+		for (long position = 0; position < size; position += window) {
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(window, size - position));
+			while (mapped.hasRemaining()) {
+				int count = Math.min(block.length - carry, mapped.remaining());
+				mapped.get(block, carry, count);
+				int limit = carry + count;
+
+				int pos = 0;
+				for (int end = pos; end < limit; end++) {
+					if (block[end] == '\n') {
+						parseLine(parser, block, pos, end, ++lineNumber);
+						pos = end + 1;
+					}
+				}
+				// The partial last line moves to the front of the block and is completed by the next copy
+				carry = limit - pos;
+				if (carry == block.length) {
+					throw new IOException("line " + (lineNumber + 1) + ": longer than " + block.length + " bytes");
+				}
+				System.arraycopy(block, pos, block, 0, carry);
+			}
+		}
+		if (carry > 0) {
+			parseLine(parser, block, 0, carry, ++lineNumber);
+		}
+	}
+
+	private static void parseLine(LineParser parser, byte[] block, int start, int end, long lineNumber) throws IOException {
+		try {
+			parser.line(block, start, end);
+		} catch (IllegalArgumentException | ArithmeticException e) {
+			throw new IOException("line " + lineNumber + ": " + e.getMessage());
+		}
+	}
+
+	// Edge list with named vertices, read through Strings; only used when ids are not numeric
+	static Graph readNamedEdgeList(Path file) throws IOException {
+		Graph.Builder builder = new Graph.Builder();
+		try (BufferedReader reader = Files.newBufferedReader(file)) {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				line = line.trim();
+				if (line.isEmpty() || line.charAt(0) == '#' || line.charAt(0) == '%') {
+					continue;
+				}
+				String[] tokens = line.split("\\s+");
+				if (tokens.length < 2) {
+					throw new IOException("line " + lineNumber + ": expected \"source target [weight]\"");
+				}
+				try {
+					if (tokens.length > 2) {
+						addEdge(builder, tokens[0], tokens[1], tokens[2]);
+					} else {
+						builder.addEdge(tokens[0], tokens[1], 1);
+					}
+				} catch (IllegalArgumentException e) {
+					throw new IOException("line " + lineNumber + ": " + e.getMessage());
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	// Whole numbers stay integer weights, anything else is read as a double weight
+	private static void addEdge(Graph.Builder builder, String from, String to, String weight) {
+		long whole;
+		try {
+			whole = Long.parseLong(weight);
+		} catch (NumberFormatException e) {
+			builder.addEdge(from, to, Double.parseDouble(weight));
+			return;
+		}
+		builder.addEdge(from, to, whole);
+	}
+
+	private static final class NamedVertexException extends RuntimeException {
+		NamedVertexException() {
+			super(null, null, false, false);
+		}
+	}
+
+	// Receives what a parser reads: a Graph.Builder for load(), sorted runs on disk for ExternalKruskal.
+	// The methods mirror those of Graph.Builder.
+	interface EdgeSink {
+		void idBase(int base);
+
+		void vertices(int count);
+
+		void ensureCapacity(int expectedEdges);
+
+		void addEdge(int from, int to, long weight);
+
+		void addEdge(int from, int to, double weight);
+
+		long edgeCount();
+
+		void rebase(int base);
+	}
+
+	private static EdgeSink sink(Graph.Builder builder) {
+		return new EdgeSink() {
+			@Override
+			public void idBase(int base) {
+				builder.idBase(base);
+			}
+
+			@Override
+			public void vertices(int count) {
+				builder.vertices(count);
+			}
+
+			@Override
+			public void ensureCapacity(int expectedEdges) {
+				builder.ensureCapacity(expectedEdges);
+			}
+
+			@Override
+			public void addEdge(int from, int to, long weight) {
+				builder.addEdge(from, to, weight);
+			}
+
+			@Override
+			public void addEdge(int from, int to, double weight) {
+				builder.addEdge(from, to, weight);
+			}
+
+			@Override
+			public long edgeCount() {
+				return builder.edgeCount();
+			}
+
+			@Override
+			public void rebase(int base) {
+				builder.rebase(base);
+			}
+		};
+	}
+
+	// Cursor over one line of bytes copied from the mapping
+	private abstract static class LineParser {
+		final EdgeSink sink;
+		byte[] buffer;
+		int pos;
+		int end;
+		long wholeWeight;
+
+		LineParser(EdgeSink sink) {
+			this.sink = sink;
+		}
+
+		void line(byte[] buffer, int start, int end) {
+			this.buffer = buffer;
+			this.pos = start;
+			this.end = end;
+			skipSpaces();
+			if (pos < end) {
+				parseLine(buffer[pos]);
+			}
+		}
+
+		abstract void parseLine(byte first);
+
+		void finish() {
+		}
+
+		void skipSpaces() {
+			while (pos < end) {
+				byte b = buffer[pos];
+				if (b != ' ' && b != '\t' && b != '\r') {
+					break;
+				}
+				pos++;
+			}
+		}
+
+		boolean atEnd() {
+			skipSpaces();
+			return pos >= end;
+		}
+
+		boolean atDigit() {
+			skipSpaces();
+			if (pos >= end) {
+				return false;
+			}
+			byte b = buffer[pos];
+			return (b >= '0' && b <= '9') || b == '-' || b == '+';
+		}
+
+		int nextInt() {
+			long value = nextLong();
+			if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+				throw new NumberFormatException("vertex id out of range: " + value);
+			}
+			return (int) value;
+		}
+
+		long nextLong() {
+			skipSpaces();
+			boolean negative = false;
+			if (pos < end && (buffer[pos] == '-' || buffer[pos] == '+')) {
+				negative = buffer[pos] == '-';
+				pos++;
+			}
+			int start = pos;
+			long value = 0;
+			while (pos < end) {
+				int digit = buffer[pos] - '0';
+				if (digit < 0 || digit > 9) {
+					break;
+				}
+				value = Math.addExact(Math.multiplyExact(value, 10), digit);
+				pos++;
+			}
+			if (pos == start) {
+				throw new NumberFormatException("expected a number");
+			}
+			return negative ? -value : value;
+		}
+
+		// A decimal or scientific number up to the next space or comma, which is skipped
+		double nextDouble() {
+			skipSpaces();
+			int start = pos;
+			while (pos < end && buffer[pos] != ' ' && buffer[pos] != '\t' && buffer[pos] != '\r' && buffer[pos] != ',') {
+				pos++;
+			}
+			if (pos == start) {
+				throw new NumberFormatException("expected a number");
+			}
+			double value = Double.parseDouble(new String(buffer, start, pos - start, StandardCharsets.US_ASCII));
+			if (pos < end && buffer[pos] == ',') {
+				pos++;
+			}
+			return value;
+		}
+
+		// Add u - v weighing the number that follows, or 1 at the end of the line.
+		// Whole numbers such as 7, -3, 2.0 or 1.5e3 are added as integers; any other number, e.g. 0.25 or 1e30,
+		// is parsed as a double, which switches the sink to double weights.
+		void addEdge(int u, int v) {
+			if (atEnd()) {
+				sink.addEdge(u, v, 1);
+				return;
+			}
+			int start = pos;
+			try {
+				if (nextWholeWeight()) {
+					sink.addEdge(u, v, wholeWeight);
+					return;
+				}
+			} catch (ArithmeticException | NumberFormatException e) {
+				// beyond the long range, or a form such as .5 that Double.parseDouble reads below
+			}
+			pos = start;
+			while (pos < end && buffer[pos] != ' ' && buffer[pos] != '\t' && buffer[pos] != '\r') {
+				pos++;
+			}
+			sink.addEdge(u, v, Double.parseDouble(new String(buffer, start, pos - start, StandardCharsets.US_ASCII)));
+		}
+
+		// Parse a decimal weight into wholeWeight; false if it has a fractional part
+		private boolean nextWholeWeight() {
+			// The sign comes from the text: nextLong reads the integer part of -0.5e1 as 0, which has none
+			skipSpaces();
+			boolean negative = pos < end && buffer[pos] == '-';
+			long mantissa = Math.abs(nextLong());
+			long exponent = 0;
+			if (pos < end && buffer[pos] == '.') {
+				pos++;
+				while (pos < end) {
+					int digit = buffer[pos] - '0';
+					if (digit < 0 || digit > 9) {
+						break;
+					}
+					if (digit != 0 || mantissa <= Long.MAX_VALUE / 10) {
+						mantissa = Math.addExact(Math.multiplyExact(mantissa, 10), digit);
+						exponent--;
+					}
+					pos++;
+				}
+			}
+			if (pos < end && (buffer[pos] == 'e' || buffer[pos] == 'E')) {
+				pos++;
+				exponent = Math.addExact(exponent, nextLong());
+			}
+			if (mantissa == 0) {
+				wholeWeight = 0;
+				return true;
+			}
+			// 10^19 and up is beyond the long range; the caller reads such a weight as a double
+			if (exponent > 19) {
+				throw new ArithmeticException("exponent out of range");
+			}
+			for (; exponent > 0; exponent--) {
+				mantissa = Math.multiplyExact(mantissa, 10);
+			}
+			for (; exponent < 0 && mantissa % 10 == 0; exponent++) {
+				mantissa /= 10;
+			}
+			if (exponent < 0 && mantissa != 0) {
+				return false;
+			}
+			wholeWeight = negative ? -mantissa : mantissa;
+			return true;
+		}
+	}
+
+	private static final class EdgeListParser extends LineParser {
+		private int minId = Integer.MAX_VALUE;
+
+		EdgeListParser(EdgeSink sink) {
+			super(sink);
+		}
+
+		@Override
+		void parseLine(byte first) {
+			if (first == '#' || first == '%') {
+				return;
+			}
+			if (!atDigit()) {
+				throw new NamedVertexException();
+			}
+			int u = nextInt();
+			if (!atDigit()) {
+				throw new NamedVertexException();
+			}
+			int v = nextInt();
+			minId = Math.min(minId, Math.min(u, v));
+			addEdge(u, v);
+		}
+
+		// Files numbered from 1 (or higher) get dense ids from 0 but keep their original display ids
+		@Override
+		void finish() {
+			if (sink.edgeCount() > 0 && minId > 0) {
+				sink.rebase(minId);
+			}
+		}
+	}
+
+	private static final class PointParser extends LineParser {
+		private double[] x = new double[1024];
+		private double[] y = new double[1024];
+		private int count;
+
+		PointParser() {
+			super(null);
+		}
+
+		@Override
+		void parseLine(byte first) {
+			if (first == '#' || first == '%') {
+				return;
+			}
+			if (count == x.length) {
+				x = Arrays.copyOf(x, count * 2);
+				y = Arrays.copyOf(y, count * 2);
+			}
+			x[count] = nextDouble();
+			y[count] = nextDouble();
+			count++;
+		}
+
+		EuclideanMst.Points points() {
+			return new EuclideanMst.Points(Arrays.copyOf(x, count), Arrays.copyOf(y, count));
+		}
+	}
+
+	private static final class DimacsParser extends LineParser {
+		DimacsParser(EdgeSink sink) {
+			super(sink);
+			sink.idBase(1);
+		}
+
+		@Override
+		void parseLine(byte first) {
+			switch (first) {
+				case 'p': {
+					// "p sp n m" or "p edge n m": skip the problem name
+					pos++;
+					skipSpaces();
+					while (pos < end && buffer[pos] != ' ' && buffer[pos] != '\t') {
+						pos++;
+					}
+					sink.vertices(nextInt());
+					sink.ensureCapacity(nextInt());
+					break;
+				}
+				case 'a':
+				case 'e': {
+					pos++;
+					int u = nextInt() - 1;
+					int v = nextInt() - 1;
+					addEdge(u, v);
+					break;
+				}
+				default:
+					// comments ('c') and other descriptors carry no edges
+			}
+		}
+	}
+
+	private static final class MatrixMarketParser extends LineParser {
+		private boolean header = true;
+		private boolean sizeRead;
+		private boolean pattern;
+
+		MatrixMarketParser(EdgeSink sink) {
+			super(sink);
+			sink.idBase(1);
+		}
+
+		@Override
+		void parseLine(byte first) {
+			if (header) {
+				header = false;
+				String banner = ascii().toLowerCase();
+				if (!banner.startsWith("%%matrixmarket")) {
+					throw new NumberFormatException("missing %%MatrixMarket banner");
+				}
+				if (!banner.contains("coordinate")) {
+					throw new NumberFormatException("only coordinate Matrix Market files are supported");
+				}
+				if (banner.contains("complex")) {
+					throw new NumberFormatException("complex Matrix Market values are not supported");
+				}
+				pattern = banner.contains("pattern");
+				return;
+			}
+			if (first == '%') {
+				return;
+			}
+			if (!sizeRead) {
+				sizeRead = true;
+				int rows = nextInt();
+				int cols = nextInt();
+				sink.vertices(Math.max(rows, cols));
+				sink.ensureCapacity(nextInt());
+				return;
+			}
+			int i = nextInt() - 1;
+			int j = nextInt() - 1;
+			if (i == j) {
+				return;
+			}
+			if (pattern) {
+				sink.addEdge(i, j, 1);
+			} else {
+				addEdge(i, j);
+			}
+		}
+
+		// Only the one banner line per file is turned into a String
+		private String ascii() {
+			return new String(buffer, pos, end - pos, StandardCharsets.US_ASCII);
+		}
+	}
+}
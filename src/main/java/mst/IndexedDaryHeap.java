@@ -0,0 +1,139 @@
+package mst;
+
+import java.util.Arrays;
+
+// Indexed d-ary min-heap over the int ids [0, capacity) with long keys.
+// Each id is present at most once, so the heap never holds more than capacity entries,
+// and decreaseKey finds an entry in O(1) through the position index.
+public final class IndexedDaryHeap {
+	private final int arity;
+	private final int[] heap;   // heap slot -> id
+	private final long[] keys;  // heap slot -> key, kept alongside heap for locality
+	private final int[] pos;    // id -> heap slot, or -1 if absent
+	private int size;
+
+	public IndexedDaryHeap(int capacity) {
+		this(capacity, 4);
+	}
+
+	public IndexedDaryHeap(int capacity, int arity) {
+		if (arity < 2) {
+			throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+		}
+		this.arity = arity;
+		heap = new int[capacity];
+		keys = new long[capacity];
+		pos = new int[capacity];
+		Arrays.fill(pos, -1);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean contains(int id) {
+		return pos[id] >= 0;
+	}
+
+	public long key(int id) {
+		return keys[pos[id]];
+	}
+
+	public int peek() {
+		return heap[0];
+	}
+
+	public long peekKey() {
+		return keys[0];
+	}
+
+	public void insert(int id, long key) {
+		if (pos[id] >= 0) {
+			throw new IllegalStateException("Id already in heap: " + id);
+		}
+		siftUp(size++, id, key);
+	}
+
+	// Lower the key of an id already in the heap; larger keys are ignored
+	public void decreaseKey(int id, long key) {
+		int i = pos[id];
+		if (key < keys[i]) {
+			siftUp(i, id, key);
+		}
+	}
+
+	// Insert the id, or lower its key if it is already present
+	public void insertOrDecrease(int id, long key) {
+		if (pos[id] < 0) {
+			siftUp(size++, id, key);
+		} else {
+			decreaseKey(id, key);
+		}
+	}
+
+	// Remove and return the id with the smallest key
+	public int poll() {
+		int top = heap[0];
+		pos[top] = -1;
+		int last = --size;
+		if (last > 0) {
+			siftDown(0, heap[last], keys[last]);
+		}
+		return top;
+	}
+
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			pos[heap[i]] = -1;
+		}
+		size = 0;
+	}
+
+	private void siftUp(int i, int id, long key) {
+		while (i > 0) {
+			int p = (i - 1) / arity;
+			if (keys[p] <= key) {
+				break;
+			}
+			heap[i] = heap[p];
+			keys[i] = keys[p];
+			pos[heap[i]] = i;
+			i = p;
+		}
+		heap[i] = id;
+		keys[i] = key;
+		pos[id] = i;
+	}
+
+	private void siftDown(int i, int id, long key) {
+		while (true) {
+			int first = i * arity + 1;
+			if (first >= size) {
+				break;
+			}
+			int last = Math.min(first + arity, size);
+			int c = first;
+			long ck = keys[first];
+			for (int j = first + 1; j < last; j++) {
+				if (keys[j] < ck) {
+					c = j;
+					ck = keys[j];
+				}
+			}
+			if (key <= ck) {
+				break;
+			}
+			heap[i] = heap[c];
+			keys[i] = ck;
+			pos[heap[i]] = i;
+			i = c;
+		}
+		heap[i] = id;
+		keys[i] = key;
+		pos[id] = i;
+	}
+}
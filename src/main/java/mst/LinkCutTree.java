@@ -0,0 +1,238 @@
+package mst;
+
+import java.util.Arrays;
+
+// Link-cut trees (Sleator-Tarjan) over int node ids, answering "heaviest edge on the path between two nodes"
+// in amortized O(log n). Edges are nodes of their own carrying a key; vertex nodes carry none.
+// Each node keeps its splay children and a parent that is either its splay parent or its path parent.
+final class LinkCutTree {
+	private static final int NONE = -1;
+
+	private int[] left;
+	private int[] right;
+	private int[] parent;
+	private boolean[] flipped;
+	private long[] key;
+	private int[] edge;
+	// Heaviest edge node in the splay subtree, or NONE
+	private int[] heaviest;
+	private int size;
+	private int[] free;
+	private int freeCount;
+	private int[] stack;
+
+	LinkCutTree(int capacity) {
+		capacity = Math.max(capacity, 16);
+		left = new int[capacity];
+		right = new int[capacity];
+		parent = new int[capacity];
+		flipped = new boolean[capacity];
+		key = new long[capacity];
+		edge = new int[capacity];
+		heaviest = new int[capacity];
+		free = new int[16];
+		stack = new int[capacity];
+	}
+
+	int addVertex() {
+		return allocate(NONE, 0);
+	}
+
+	// A node standing for edge id with the given weight; ties between equal weights go to the larger id
+	int addEdge(int id, long weight) {
+		return allocate(id, weight);
+	}
+
+	// Release a node that has been cut from every neighbour
+	void release(int node) {
+		if (freeCount == free.length) {
+			free = Arrays.copyOf(free, freeCount * 2);
+		}
+		free[freeCount++] = node;
+	}
+
+	void setKey(int node, long weight) {
+		access(node);
+		key[node] = weight;
+		update(node);
+	}
+
+	boolean connected(int a, int b) {
+		return a == b || findRoot(a) == findRoot(b);
+	}
+
+	// Join the trees of a and b with a tree edge between them; they must not be connected
+	void link(int a, int b) {
+		makeRoot(a);
+		parent[a] = b;
+	}
+
+	// Remove the tree edge between a and b
+	void cut(int a, int b) {
+		makeRoot(a);
+		access(b);
+		// After access, a is the only node left of b in b's splay tree
+		left[b] = NONE;
+		parent[a] = NONE;
+		update(b);
+	}
+
+	// Edge id of the heaviest edge on the path from a to b, or -1 when the path has no edge
+	int heaviestOnPath(int a, int b) {
+		makeRoot(a);
+		access(b);
+		int node = heaviest[b];
+		return node == NONE ? -1 : edge[node];
+	}
+
+	private int allocate(int id, long weight) {
+		int node;
+		if (freeCount > 0) {
+			node = free[--freeCount];
+		} else {
+			if (size == left.length) {
+				int capacity = size * 2;
+				left = Arrays.copyOf(left, capacity);
+				right = Arrays.copyOf(right, capacity);
+				parent = Arrays.copyOf(parent, capacity);
+				flipped = Arrays.copyOf(flipped, capacity);
+				key = Arrays.copyOf(key, capacity);
+				edge = Arrays.copyOf(edge, capacity);
+				heaviest = Arrays.copyOf(heaviest, capacity);
+				stack = new int[capacity];
+			}
+			node = size++;
+		}
+		left[node] = NONE;
+		right[node] = NONE;
+		parent[node] = NONE;
+		flipped[node] = false;
+		key[node] = weight;
+		edge[node] = id;
+		heaviest[node] = id == NONE ? NONE : node;
+		return node;
+	}
+
+	private int findRoot(int node) {
+		access(node);
+		int root = node;
+		push(root);
+		while (left[root] != NONE) {
+			root = left[root];
+			push(root);
+		}
+		splay(root);
+		return root;
+	}
+
+	private void makeRoot(int node) {
+		access(node);
+		flipped[node] ^= true;
+		push(node);
+	}
+
+	// Make the path from the root to node preferred and leave node at the root of its splay tree
+	private void access(int node) {
+		int last = NONE;
+		for (int x = node; x != NONE; x = parent[x]) {
+			splay(x);
+			right[x] = last;
+			update(x);
+			last = x;
+		}
+		splay(node);
+	}
+
+	private boolean isSplayRoot(int x) {
+		int p = parent[x];
+		return p == NONE || (left[p] != x && right[p] != x);
+	}
+
+	private void splay(int x) {
+		// Push pending flips down from the splay root before rotating
+		int depth = 0;
+		stack[depth++] = x;
+		for (int y = x; !isSplayRoot(y); y = parent[y]) {
+			stack[depth++] = parent[y];
+		}
+		while (depth > 0) {
+			push(stack[--depth]);
+		}
+
+		while (!isSplayRoot(x)) {
+			int p = parent[x];
+			if (!isSplayRoot(p)) {
+				int g = parent[p];
+				boolean zigZig = (left[g] == p) == (left[p] == x);
+				rotate(zigZig ? p : x);
+			}
+			rotate(x);
+		}
+	}
+
+	private void rotate(int x) {
+		int p = parent[x];
+		int g = parent[p];
+		boolean pIsRoot = isSplayRoot(p);
+		if (left[p] == x) {
+			left[p] = right[x];
+			if (right[x] != NONE) {
+				parent[right[x]] = p;
+			}
+			right[x] = p;
+		} else {
+			right[p] = left[x];
+			if (left[x] != NONE) {
+				parent[left[x]] = p;
+			}
+			left[x] = p;
+		}
+		parent[p] = x;
+		parent[x] = g;
+		if (!pIsRoot) {
+			if (left[g] == p) {
+				left[g] = x;
+			} else {
+				right[g] = x;
+			}
+		}
+		update(p);
+		update(x);
+	}
+
+	private void push(int x) {
+		if (flipped[x]) {
+			int l = left[x];
+			left[x] = right[x];
+			right[x] = l;
+			if (left[x] != NONE) {
+				flipped[left[x]] ^= true;
+			}
+			if (right[x] != NONE) {
+				flipped[right[x]] ^= true;
+			}
+			flipped[x] = false;
+		}
+	}
+
+	private void update(int x) {
+		int best = edge[x] == NONE ? NONE : x;
+		best = heavier(heaviest(left[x]), best);
+		best = heavier(heaviest(right[x]), best);
+		heaviest[x] = best;
+	}
+
+	private int heaviest(int x) {
+		return x == NONE ? NONE : heaviest[x];
+	}
+
+	private int heavier(int a, int b) {
+		if (a == NONE) {
+			return b;
+		}
+		if (b == NONE) {
+			return a;
+		}
+		return key[a] > key[b] || (key[a] == key[b] && edge[a] > edge[b]) ? a : b;
+	}
+}
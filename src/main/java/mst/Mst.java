@@ -0,0 +1,360 @@
+package mst;
+
+import java.util.Arrays;
+
+// Minimum spanning tree algorithms over the CSR Graph.
+// Each returns the ids of the chosen edges in the order they were accepted.
+// Given a StepLog they also record every edge they consider, accept or reject; a null log records nothing.
+// When the monitor supplies RunMetrics they time their phases and report counters kept in locals.
+// On a disconnected graph every algorithm returns a minimum spanning forest; SpanningForest splits it into trees.
+public final class Mst {
+	// Steps between two monitor checkpoints; a power of two so the test is a mask
+	static final int CHECKPOINT_INTERVAL = 4096;
+
+	private Mst() {
+	}
+
+	public static int[] kruskal(Graph graph) {
+		return kruskal(graph, MstMonitor.NONE);
+	}
+
+	public static int[] prim(Graph graph, int start) {
+		return prim(graph, start, MstMonitor.NONE);
+	}
+
+	public static int[] primEager(Graph graph, int start) {
+		return primEager(graph, start, MstMonitor.NONE);
+	}
+
+	public static int[] kruskal(Graph graph, MstMonitor monitor) {
+		return kruskal(graph, monitor, null);
+	}
+
+	public static int[] prim(Graph graph, int start, MstMonitor monitor) {
+		return prim(graph, start, monitor, null);
+	}
+
+	public static int[] primEager(Graph graph, int start, MstMonitor monitor) {
+		return primEager(graph, start, monitor, null);
+	}
+
+	// Kruskal's Algorithm: scan edges by ascending weight, keep those joining two components
+	public static int[] kruskal(Graph graph, MstMonitor monitor, StepLog log) {
+		int n = graph.vertexCount();
+		int m = graph.edgeCount();
+		int[] sources = graph.sources();
+		int[] targets = graph.targets();
+		RunMetrics metrics = monitor.metrics();
+
+		// Step 1: Edge ids by weight, sorted once per graph and reused by later runs
+		monitor.checkpoint(0, 0, m);
+		if (metrics != null) {
+			metrics.begin("sort");
+		}
+		int[] order = graph.edgesByWeight();
+
+		// Step 2: Disjoint set over vertex ids
+		if (metrics != null) {
+			metrics.begin("union-find");
+		}
+		UnionFind components = new UnionFind(n);
+
+		// Step 3: Process edges and form MST, stopping once the tree is complete
+		int[] mst = new int[Math.max(n - 1, 0)];
+		int count = 0;
+		if (log != null) {
+			log.begin("components");
+		}
+		// Only an instrumented run counts the parent links its finds follow
+		boolean counting = metrics != null;
+		long findSteps = 0;
+		int i = 0;
+		for (; i < m && count < mst.length; i++) {
+			if ((i & (CHECKPOINT_INTERVAL - 1)) == 0) {
+				monitor.checkpoint(count, i, m);
+			}
+			int e = order[i];
+			boolean joined;
+			if (counting) {
+				long source = components.findCounting(sources[e]);
+				long target = components.findCounting(targets[e]);
+				findSteps += (source >>> 32) + (target >>> 32);
+				joined = components.unionRoots((int) source, (int) target);
+			} else {
+				joined = components.union(sources[e], targets[e]);
+			}
+			if (joined) {
+				mst[count++] = e;
+				if (log != null) {
+					log.record(StepLog.ACCEPTED, e, n - count);
+				}
+			} else if (log != null) {
+				log.record(StepLog.REJECTED_CYCLE, e, n - count);
+			}
+		}
+		if (metrics != null) {
+			metrics.end();
+			metrics.count("edges scanned", i);
+			metrics.count("unions", count);
+			metrics.count("cycle rejections", i - count);
+			metrics.count("finds", 2L * i);
+			metrics.count("find path steps", findSteps);
+		}
+		monitor.progress(count, m, m);
+		return count == mst.length ? mst : Arrays.copyOf(mst, count);
+	}
+
+	// Prim's Algorithm (lazy variant): the heap holds adjacency slots and stale entries are skipped on poll
+	public static int[] prim(Graph graph, int start, MstMonitor monitor, StepLog log) {
+		int n = graph.vertexCount();
+		if (n == 0) {
+			return new int[0];
+		}
+		int[] offsets = graph.offsets();
+		int[] adjTarget = graph.adjacentTargets();
+		int[] adjEdge = graph.adjacentEdges();
+		long[] weights = graph.weights();
+		RunMetrics metrics = monitor.metrics();
+		if (metrics != null) {
+			metrics.begin("setup");
+		}
+
+		boolean[] visited = new boolean[n];
+		int[] heap = new int[Math.max(adjEdge.length, 1)];
+		int size = 0;
+
+		int[] mst = new int[n - 1];
+		int count = 0;
+
+		if (log != null) {
+			log.begin("heap");
+		}
+		if (metrics != null) {
+			metrics.begin("heap");
+		}
+		long pushes = 0;
+		int maxSize = 0;
+		visited[start] = true;
+		for (int s = offsets[start]; s < offsets[start + 1]; s++) {
+			if (!visited[adjTarget[s]]) {
+				heap[size] = s;
+				siftUp(heap, size++, adjEdge, weights);
+				if (log != null) {
+					log.record(StepLog.CANDIDATE, adjEdge[s], size);
+				}
+			}
+		}
+		pushes += size;
+		maxSize = size;
+
+		long polls = 0;
+		long stale = 0;
+		long trees = 1;
+		int next = 0;
+		long scanned = offsets[start + 1] - offsets[start];
+		while (count < mst.length) {
+			int v;
+			if (size == 0) {
+				// The tree spans its component: grow the next one from the lowest vertex not reached yet
+				while (next < n && visited[next]) {
+					next++;
+				}
+				if (next == n) {
+					break;
+				}
+				v = next;
+				trees++;
+			} else {
+				if ((++polls & (CHECKPOINT_INTERVAL - 1)) == 0) {
+					monitor.checkpoint(count, scanned, adjEdge.length);
+				}
+				int slot = heap[0];
+				heap[0] = heap[--size];
+				siftDown(heap, 0, size, adjEdge, weights);
+
+				v = adjTarget[slot];
+				if (visited[v]) {
+					stale++;
+					if (log != null) {
+						log.record(StepLog.REJECTED_CYCLE, adjEdge[slot], size);
+					}
+					continue; // stale entry
+				}
+				mst[count++] = adjEdge[slot];
+				if (log != null) {
+					log.record(StepLog.ACCEPTED, adjEdge[slot], size);
+				}
+			}
+			visited[v] = true;
+			scanned += offsets[v + 1] - offsets[v];
+			int before = size;
+			for (int s = offsets[v]; s < offsets[v + 1]; s++) {
+				if (!visited[adjTarget[s]]) {
+					heap[size] = s;
+					siftUp(heap, size++, adjEdge, weights);
+					if (log != null) {
+						log.record(StepLog.CANDIDATE, adjEdge[s], size);
+					}
+				}
+			}
+			pushes += size - before;
+			maxSize = Math.max(maxSize, size);
+		}
+		if (metrics != null) {
+			metrics.end();
+			metrics.count("heap pushes", pushes);
+			metrics.count("heap polls", polls);
+			metrics.count("stale pops", stale);
+			metrics.count("max heap size", maxSize);
+			metrics.count("trees", trees);
+		}
+		monitor.progress(count, adjEdge.length, adjEdge.length);
+		return count == mst.length ? mst : Arrays.copyOf(mst, count);
+	}
+
+	// Prim's Algorithm (eager variant): an indexed heap keyed by vertex holds the best known
+	// connecting edge of each fringe vertex and is updated with decrease-key, so it never exceeds V entries
+	public static int[] primEager(Graph graph, int start, MstMonitor monitor, StepLog log) {
+		int n = graph.vertexCount();
+		if (n == 0) {
+			return new int[0];
+		}
+		int[] offsets = graph.offsets();
+		int[] adjTarget = graph.adjacentTargets();
+		int[] adjEdge = graph.adjacentEdges();
+		long[] weights = graph.weights();
+
+		RunMetrics metrics = monitor.metrics();
+		if (metrics != null) {
+			metrics.begin("setup");
+		}
+		boolean[] inTree = new boolean[n];
+		int[] bestEdge = new int[n];
+		IndexedDaryHeap heap = new IndexedDaryHeap(n);
+
+		int[] mst = new int[n - 1];
+		int count = 0;
+
+		if (log != null) {
+			log.begin("heap");
+		}
+		if (metrics != null) {
+			metrics.begin("heap");
+		}
+		long inserts = 1;
+		long decreases = 0;
+		long polls = 0;
+		long trees = 1;
+		int next = 0;
+		int maxSize = 0;
+		bestEdge[start] = -1;
+		heap.insert(start, Long.MIN_VALUE);
+		long scanned = 0;
+		while (true) {
+			if (heap.isEmpty()) {
+				// The tree spans its component: grow the next one from the lowest vertex not reached yet
+				while (next < n && inTree[next]) {
+					next++;
+				}
+				if (next == n) {
+					break;
+				}
+				bestEdge[next] = -1;
+				heap.insert(next, Long.MIN_VALUE);
+				inserts++;
+				trees++;
+			}
+			if ((polls & (CHECKPOINT_INTERVAL - 1)) == 0) {
+				monitor.checkpoint(count, scanned, adjEdge.length);
+			}
+			maxSize = Math.max(maxSize, heap.size());
+			int v = heap.poll();
+			polls++;
+			scanned += offsets[v + 1] - offsets[v];
+			inTree[v] = true;
+			if (bestEdge[v] >= 0) {
+				mst[count++] = bestEdge[v];
+				if (log != null) {
+					log.record(StepLog.ACCEPTED, bestEdge[v], heap.size());
+				}
+			}
+			for (int s = offsets[v]; s < offsets[v + 1]; s++) {
+				int w = adjTarget[s];
+				if (inTree[w]) {
+					continue;
+				}
+				int e = adjEdge[s];
+				long weight = weights[e];
+				if (!heap.contains(w)) {
+					bestEdge[w] = e;
+					heap.insert(w, weight);
+					inserts++;
+					if (log != null) {
+						log.record(StepLog.CANDIDATE, e, heap.size());
+					}
+				} else if (weight < heap.key(w)) {
+					if (log != null) {
+						log.record(StepLog.REJECTED_HEAVIER, bestEdge[w], heap.size());
+						log.record(StepLog.CANDIDATE, e, heap.size());
+					}
+					bestEdge[w] = e;
+					heap.decreaseKey(w, weight);
+					decreases++;
+				} else if (log != null) {
+					log.record(StepLog.REJECTED_HEAVIER, e, heap.size());
+				}
+			}
+		}
+		if (metrics != null) {
+			metrics.end();
+			metrics.count("heap inserts", inserts);
+			metrics.count("heap decrease-keys", decreases);
+			metrics.count("heap polls", polls);
+			metrics.count("max heap size", maxSize);
+			metrics.count("trees", trees);
+		}
+		monitor.progress(count, adjEdge.length, adjEdge.length);
+		return count == mst.length ? mst : Arrays.copyOf(mst, count);
+	}
+
+	// Binary min-heap helpers over adjacency slots keyed by the weight of their edge, shared with ParallelMst
+	static void siftUp(int[] heap, int i, int[] adjEdge, long[] weights) {
+		int slot = heap[i];
+		long key = weights[adjEdge[slot]];
+		while (i > 0) {
+			int p = (i - 1) >>> 1;
+			if (weights[adjEdge[heap[p]]] <= key) {
+				break;
+			}
+			heap[i] = heap[p];
+			i = p;
+		}
+		heap[i] = slot;
+	}
+
+	static void siftDown(int[] heap, int i, int size, int[] adjEdge, long[] weights) {
+		if (size == 0) {
+			return;
+		}
+		int slot = heap[i];
+		long key = weights[adjEdge[slot]];
+		int half = size >>> 1;
+		while (i < half) {
+			int c = 2 * i + 1;
+			long ck = weights[adjEdge[heap[c]]];
+			if (c + 1 < size) {
+				long rk = weights[adjEdge[heap[c + 1]]];
+				if (rk < ck) {
+					c++;
+					ck = rk;
+				}
+			}
+			if (key <= ck) {
+				break;
+			}
+			heap[i] = heap[c];
+			i = c;
+		}
+		heap[i] = slot;
+	}
+}
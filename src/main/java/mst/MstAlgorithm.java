@@ -0,0 +1,124 @@
+package mst;
+
+// The MST algorithms the engine offers, with the title used when presenting their results.
+public enum MstAlgorithm {
+	KRUSKAL("Kruskal's Algorithm") {
+		@Override
+		int[] compute(Graph graph, MstMonitor monitor) {
+			return Mst.kruskal(graph, monitor);
+		}
+
+		@Override
+		int[] compute(Graph graph, MstMonitor monitor, StepLog log) {
+			return Mst.kruskal(graph, monitor, log);
+		}
+
+		@Override
+		public boolean recordsSteps() {
+			return true;
+		}
+	},
+	PRIM("Prim's Algorithm") {
+		@Override
+		int[] compute(Graph graph, MstMonitor monitor) {
+			return Mst.prim(graph, 0, monitor);
+		}
+
+		@Override
+		int[] compute(Graph graph, MstMonitor monitor, StepLog log) {
+			return Mst.prim(graph, 0, monitor, log);
+		}
+
+		@Override
+		public boolean recordsSteps() {
+			return true;
+		}
+	},
+	PRIM_EAGER("Prim's Algorithm (eager)") {
+		@Override
+		int[] compute(Graph graph, MstMonitor monitor) {
+			return Mst.primEager(graph, 0, monitor);
+		}
+
+		@Override
+		int[] compute(Graph graph, MstMonitor monitor, StepLog log) {
+			return Mst.primEager(graph, 0, monitor, log);
+		}
+
+		@Override
+		public boolean recordsSteps() {
+			return true;
+		}
+	},
+	BORUVKA("Parallel Bor\u016fvka") {
+		@Override
+		int[] compute(Graph graph, MstMonitor monitor) {
+			return ParallelMst.boruvka(graph, monitor);
+		}
+	},
+	// One Prim per connected component, the components in parallel; see ParallelMst.primForest
+	FOREST("Spanning Forest (parallel Prim)") {
+		@Override
+		int[] compute(Graph graph, MstMonitor monitor) {
+			return ParallelMst.primForest(graph, monitor);
+		}
+	},
+	// Builds the forest that DynamicMst then maintains; see DynamicMst.update for the incremental path
+	DYNAMIC("Dynamic MST") {
+		@Override
+		int[] compute(Graph graph, MstMonitor monitor) {
+			return new DynamicMst(graph, monitor).treeEdges();
+		}
+	};
+
+	private final String title;
+
+	MstAlgorithm(String title) {
+		this.title = title;
+	}
+
+	public String title() {
+		return title;
+	}
+
+	abstract int[] compute(Graph graph, MstMonitor monitor);
+
+	// Algorithms that cannot record steps ignore the log
+	int[] compute(Graph graph, MstMonitor monitor, StepLog log) {
+		return compute(graph, monitor);
+	}
+
+	// True if runs given a StepLog fill it, see Mst
+	public boolean recordsSteps() {
+		return false;
+	}
+
+	public MstResult run(Graph graph) {
+		return run(graph, MstMonitor.NONE);
+	}
+
+	// Run the algorithm and time it; the result keeps edge ids only, text is built on demand
+	public MstResult run(Graph graph, MstMonitor monitor) {
+		return run(graph, monitor, null);
+	}
+
+	// As above, recording the steps into log when it is not null and the algorithm records steps
+	// A monitor with RunMetrics gets the phases and counters of the run, which are also sent to JFR and JMX
+	public MstResult run(Graph graph, MstMonitor monitor, StepLog log) {
+		RunMetrics metrics = monitor.metrics();
+		if (metrics != null) {
+			metrics.start(this, graph);
+		}
+		long start = System.nanoTime();
+		int[] edges = log == null ? compute(graph, monitor) : compute(graph, monitor, log);
+		long elapsed = System.nanoTime() - start;
+		if (metrics != null) {
+			metrics.begin("result");
+		}
+		MstResult result = new MstResult(this, graph, edges, elapsed);
+		if (metrics != null) {
+			metrics.finish(elapsed);
+		}
+		return result;
+	}
+}
@@ -0,0 +1,425 @@
+package mst;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Headless entry point: computes MSTs for graph files without loading any AWT/Swing classes.
+//
+// Usage: java -cp <classes> mst.MstCli [options] <file or directory>...
+//   -a, --algorithm NAME   kruskal, prim, prim-eager, boruvka, forest, both (default) or all
+//   -o, --output FILE      write results to FILE instead of stdout
+//   -q, --quiet            print only the summary line of each run, not the MST edges
+//   -w, --warmup N         run each algorithm N times on the first graph before timing
+//   -b, --binary DIR       also save every loaded graph to DIR in the binary GraphFile format
+//   -m, --metrics FILE     write phase timings and counters of every run to FILE, as CSV if it ends in .csv,
+//                          otherwise as a JSON array
+//   -B, --batch            load every file first, then solve them all at once on a work-stealing pool,
+//                          each with the algorithm MstBatch chooses for it, and report graphs per second
+//   -x, --external         run Kruskal out of core: sort the edges in runs on disk and merge them, so memory
+//                          grows with the vertices only (see ExternalKruskal)
+//   -t, --temp DIR         directory for the sorted runs of --external instead of java.io.tmpdir
+//
+// Directories are expanded to the regular files they contain, so a whole batch runs in one JVM.
+// The dynamic MST is not offered: it only pays off over a series of edits, and a single run of it is Kruskal
+// plus building the forest, which would be timed as if it were an update.
+// Input files are DIMACS (.gr), Matrix Market (.mtx), edge lists, point sets (.xy) or binary graph files,
+// see GraphLoader.
+public final class MstCli {
+	private MstCli() {
+	}
+
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		try {
+			System.exit(run(args));
+		} catch (IllegalArgumentException e) {
+			System.err.println("Error: " + e.getMessage());
+			printUsage();
+			System.exit(2);
+		}
+	}
+
+	static int run(String[] args) {
+		Set<MstAlgorithm> algorithms = EnumSet.of(MstAlgorithm.KRUSKAL, MstAlgorithm.PRIM);
+		String output = null;
+		boolean quiet = false;
+		int warmup = 0;
+		Path binaryDir = null;
+		Path metricsFile = null;
+		boolean batch = false;
+		boolean external = false;
+		Path tempDir = null;
+		List<Path> inputs = new ArrayList<>();
+
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			switch (arg) {
+				case "-a":
+				case "--algorithm":
+					algorithms = parseAlgorithms(value(args, ++i, arg));
+					break;
+				case "-o":
+				case "--output":
+					output = value(args, ++i, arg);
+					break;
+				case "-q":
+				case "--quiet":
+					quiet = true;
+					break;
+				case "-w":
+				case "--warmup":
+					warmup = Integer.parseInt(value(args, ++i, arg));
+					break;
+				case "-b":
+				case "--binary":
+					binaryDir = Paths.get(value(args, ++i, arg));
+					break;
+				case "-m":
+				case "--metrics":
+					metricsFile = Paths.get(value(args, ++i, arg));
+					break;
+				case "-B":
+				case "--batch":
+					batch = true;
+					break;
+				case "-x":
+				case "--external":
+					external = true;
+					break;
+				case "-t":
+				case "--temp":
+					tempDir = Paths.get(value(args, ++i, arg));
+					break;
+				case "-h":
+				case "--help":
+					printUsage();
+					return 0;
+				default:
+					if (arg.startsWith("-")) {
+						throw new IllegalArgumentException("Unknown option " + arg);
+					}
+					inputs.add(Paths.get(arg));
+			}
+		}
+		if (inputs.isEmpty()) {
+			throw new IllegalArgumentException("No input files given");
+		}
+		if (batch && metricsFile != null) {
+			throw new IllegalArgumentException("--metrics records single runs and cannot be combined with --batch");
+		}
+		if (external && (batch || metricsFile != null || binaryDir != null)) {
+			throw new IllegalArgumentException("--external never builds the graph and cannot be combined with --batch, --metrics or --binary");
+		}
+
+		List<Path> files;
+		try {
+			files = expand(inputs);
+		} catch (IOException e) {
+			System.err.println("Error: " + e.getMessage());
+			return 1;
+		}
+		if (batch) {
+			return runBatch(files, output, quiet, warmup, binaryDir);
+		}
+		if (external) {
+			return runExternal(files, output, quiet, new ExternalKruskal(ExternalKruskal.DEFAULT_RUN_EDGES, tempDir));
+		}
+
+		int failures = 0;
+		List<RunMetrics> allMetrics = new ArrayList<>();
+		try (PrintStream out = open(output)) {
+			boolean warmed = warmup == 0;
+			for (Path file : files) {
+				long start = System.nanoTime();
+				Graph graph;
+				long bytes;
+				try {
+					bytes = Files.size(file);
+					graph = GraphLoader.load(file);
+				} catch (IOException | RuntimeException e) {
+					System.err.println("Error: cannot read " + file + ": " + e.getMessage());
+					failures++;
+					continue;
+				}
+				long loadNanos = System.nanoTime() - start;
+
+				if (binaryDir != null) {
+					Path saved = binaryDir.resolve(file.getFileName() + ".mstg");
+					try {
+						GraphFile.write(graph, saved);
+					} catch (IOException e) {
+						System.err.println("Error: cannot write " + saved + ": " + e.getMessage());
+						failures++;
+					}
+				}
+
+				if (!warmed) {
+					// On a copy without the graph's cached edge order, so the timed Kruskal still sorts like
+					// it does on every other file
+					for (int r = 0; r < warmup; r++) {
+						for (MstAlgorithm algorithm : algorithms) {
+							algorithm.run(unsorted(graph));
+						}
+					}
+					warmed = true;
+				}
+
+				out.printf("# %s: %d vertices, %d edges, loaded in %.3f ms (%.1f MB/s)%n",
+						file, graph.vertexCount(), graph.edgeCount(), loadNanos / 1e6, bytes / 1e6 / (loadNanos / 1e9));
+				StringBuilder edges = new StringBuilder();
+				for (MstAlgorithm algorithm : algorithms) {
+					RunMetrics metrics = null;
+					MstMonitor monitor = MstMonitor.NONE;
+					if (metricsFile != null) {
+						metrics = new RunMetrics();
+						metrics.addPhase("graph build", loadNanos);
+						monitor = instrumented(metrics);
+						allMetrics.add(metrics);
+					}
+					MstResult result = algorithm.run(graph, monitor);
+					out.println(result.summary());
+					if (!quiet) {
+						long formatStart = System.nanoTime();
+						edges.setLength(0);
+						// A disconnected graph is listed tree by tree
+						if (result.componentCount() > 1) {
+							result.forest().appendTrees(edges);
+						} else {
+							result.appendEdges(edges);
+						}
+						if (metrics != null) {
+							metrics.addPhase("format", System.nanoTime() - formatStart);
+						}
+						out.print(edges);
+					}
+				}
+				out.println();
+			}
+		} catch (IOException e) {
+			System.err.println("Error: cannot write " + output + ": " + e.getMessage());
+			return 1;
+		}
+		if (metricsFile != null) {
+			try {
+				writeMetrics(allMetrics, metricsFile);
+			} catch (IOException e) {
+				System.err.println("Error: cannot write " + metricsFile + ": " + e.getMessage());
+				return 1;
+			}
+		}
+		return failures == 0 ? 0 : 1;
+	}
+
+	// Loads every file, then times only the batch; per-graph times overlap, so the batch summary comes last
+	private static int runBatch(List<Path> files, String output, boolean quiet, int warmup, Path binaryDir) {
+		int failures = 0;
+		List<Path> loaded = new ArrayList<>();
+		List<Graph> graphs = new ArrayList<>();
+		for (Path file : files) {
+			Graph graph;
+			try {
+				graph = GraphLoader.load(file);
+			} catch (IOException | RuntimeException e) {
+				System.err.println("Error: cannot read " + file + ": " + e.getMessage());
+				failures++;
+				continue;
+			}
+			if (binaryDir != null) {
+				Path saved = binaryDir.resolve(file.getFileName() + ".mstg");
+				try {
+					GraphFile.write(graph, saved);
+				} catch (IOException e) {
+					System.err.println("Error: cannot write " + saved + ": " + e.getMessage());
+					failures++;
+				}
+			}
+			loaded.add(file);
+			graphs.add(graph);
+		}
+
+		MstBatch solver = new MstBatch();
+		for (int r = 0; r < warmup; r++) {
+			solver.run(graphs);
+		}
+		MstBatch.Result batch = solver.run(graphs);
+		try (PrintStream out = open(output)) {
+			StringBuilder edges = new StringBuilder();
+			for (int i = 0; i < batch.graphCount(); i++) {
+				Graph graph = graphs.get(i);
+				MstResult result = batch.result(i);
+				out.printf("# %s: %d vertices, %d edges%n", loaded.get(i), graph.vertexCount(), graph.edgeCount());
+				out.println(result.summary());
+				if (!quiet) {
+					edges.setLength(0);
+					if (result.componentCount() > 1) {
+						result.forest().appendTrees(edges);
+					} else {
+						result.appendEdges(edges);
+					}
+					out.print(edges);
+				}
+				out.println();
+			}
+			out.println("# batch: " + batch.summary());
+		} catch (IOException e) {
+			System.err.println("Error: cannot write " + output + ": " + e.getMessage());
+			return 1;
+		}
+		return failures == 0 ? 0 : 1;
+	}
+
+	// Each file is read, sorted and merged by ExternalKruskal without ever being loaded as a Graph
+	private static int runExternal(List<Path> files, String output, boolean quiet, ExternalKruskal kruskal) {
+		int failures = 0;
+		try (PrintStream out = open(output)) {
+			StringBuilder edges = new StringBuilder();
+			for (Path file : files) {
+				ExternalKruskal.Result result;
+				try {
+					result = kruskal.run(file);
+				} catch (IOException | RuntimeException e) {
+					System.err.println("Error: cannot process " + file + ": " + e.getMessage());
+					failures++;
+					continue;
+				}
+				out.printf("# %s: %d vertices, %d edges%n", file, result.vertexCount(), result.inputEdgeCount());
+				out.println(result.summary());
+				if (!quiet) {
+					edges.setLength(0);
+					result.appendEdges(edges);
+					out.print(edges);
+				}
+				out.println();
+			}
+		} catch (IOException e) {
+			System.err.println("Error: cannot write " + output + ": " + e.getMessage());
+			return 1;
+		}
+		return failures == 0 ? 0 : 1;
+	}
+
+	// graph over the same arrays but without the edge order a Kruskal run caches on it
+	private static Graph unsorted(Graph graph) {
+		return Graph.fromCsr(null, graph.idBase(), graph.sources(), graph.targets(), graph.weights(), graph.hasDoubleWeights(),
+				graph.offsets(), graph.adjacentTargets(), graph.adjacentEdges());
+	}
+
+	private static MstMonitor instrumented(RunMetrics metrics) {
+		return new MstMonitor() {
+			@Override
+			public void progress(int accepted, long scanned, long total) {
+			}
+
+			@Override
+			public boolean isCancelled() {
+				return false;
+			}
+
+			@Override
+			public RunMetrics metrics() {
+				return metrics;
+			}
+		};
+	}
+
+	private static void writeMetrics(List<RunMetrics> runs, Path file) throws IOException {
+		try (PrintStream out = new PrintStream(new BufferedOutputStream(Files.newOutputStream(file)), false, "UTF-8")) {
+			if (file.toString().toLowerCase().endsWith(".csv")) {
+				out.println(RunMetrics.CSV_HEADER);
+				for (RunMetrics metrics : runs) {
+					out.print(metrics.toCsv());
+				}
+				return;
+			}
+			out.println('[');
+			for (int i = 0; i < runs.size(); i++) {
+				out.print(runs.get(i).toJson());
+				out.println(i + 1 < runs.size() ? "," : "");
+			}
+			out.println(']');
+		}
+	}
+
+	private static String value(String[] args, int i, String option) {
+		if (i >= args.length) {
+			throw new IllegalArgumentException("Missing value for " + option);
+		}
+		return args[i];
+	}
+
+	private static Set<MstAlgorithm> parseAlgorithms(String name) {
+		switch (name.toLowerCase()) {
+			case "kruskal":
+				return EnumSet.of(MstAlgorithm.KRUSKAL);
+			case "prim":
+				return EnumSet.of(MstAlgorithm.PRIM);
+			case "prim-eager":
+				return EnumSet.of(MstAlgorithm.PRIM_EAGER);
+			case "boruvka":
+				return EnumSet.of(MstAlgorithm.BORUVKA);
+			case "dynamic":
+				throw new IllegalArgumentException("dynamic maintains a tree across edits and has no one-off run to time; use the GUI");
+			case "forest":
+				return EnumSet.of(MstAlgorithm.FOREST);
+			case "both":
+				return EnumSet.of(MstAlgorithm.KRUSKAL, MstAlgorithm.PRIM);
+			case "all":
+				return EnumSet.complementOf(EnumSet.of(MstAlgorithm.DYNAMIC));
+			default:
+				throw new IllegalArgumentException("Unknown algorithm " + name);
+		}
+	}
+
+	// Replace each directory by the regular files in it, in name order
+	private static List<Path> expand(List<Path> inputs) throws IOException {
+		List<Path> files = new ArrayList<>();
+		for (Path input : inputs) {
+			if (Files.isDirectory(input)) {
+				try (Stream<Path> children = Files.list(input)) {
+					files.addAll(children.filter(Files::isRegularFile).sorted().collect(Collectors.toList()));
+				}
+			} else {
+				files.add(input);
+			}
+		}
+		return files;
+	}
+
+	private static PrintStream open(String output) throws IOException {
+		OutputStream stream = output == null ? System.out : Files.newOutputStream(Paths.get(output));
+		return new PrintStream(new BufferedOutputStream(stream, 1 << 16), false) {
+			@Override
+			public void close() {
+				if (output == null) {
+					flush(); // leave stdout open
+				} else {
+					super.close();
+				}
+			}
+		};
+	}
+
+	private static void printUsage() {
+		System.err.println("Usage: java -cp <classes> mst.MstCli [options] <file or directory>...");
+		System.err.println("  -a, --algorithm NAME   kruskal, prim, prim-eager, boruvka, forest, both (default) or all");
+		System.err.println("  -o, --output FILE      write results to FILE instead of stdout");
+		System.err.println("  -q, --quiet            print only the summary line of each run");
+		System.err.println("  -w, --warmup N         run each algorithm N times on the first graph before timing");
+		System.err.println("  -b, --binary DIR       also save every loaded graph to DIR in the binary format");
+		System.err.println("  -m, --metrics FILE     write phase timings and counters of every run to FILE (.csv or JSON)");
+		System.err.println("  -B, --batch            solve all graphs at once on a work-stealing pool and report graphs/s");
+		System.err.println("  -x, --external         Kruskal with the edges sorted on disk, for graphs larger than the heap");
+		System.err.println("  -t, --temp DIR         directory for the sorted runs of --external");
+	}
+}
@@ -0,0 +1,36 @@
+package mst;
+
+import java.util.concurrent.CancellationException;
+
+// Receives progress from a running MST algorithm and tells it when to stop.
+// Algorithms call checkpoint every few thousand steps, never per edge.
+public interface MstMonitor {
+	MstMonitor NONE = new MstMonitor() {
+		@Override
+		public void progress(int accepted, long scanned, long total) {
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return false;
+		}
+	};
+
+	// accepted: tree edges chosen so far; scanned out of total: units of work done, e.g. edges examined
+	void progress(int accepted, long scanned, long total);
+
+	boolean isCancelled();
+
+	// Where the algorithm reports phase times and counters, or null when the run is not instrumented
+	default RunMetrics metrics() {
+		return null;
+	}
+
+	// Report progress, then abandon the run if it has been cancelled or its thread interrupted
+	default void checkpoint(int accepted, long scanned, long total) {
+		progress(accepted, scanned, total);
+		if (isCancelled() || Thread.currentThread().isInterrupted()) {
+			throw new CancellationException("MST computation cancelled");
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package mst;
+
+import java.util.BitSet;
+
+// Outcome of one MST run: the chosen edge ids, their total weight and the time taken.
+// Membership tests go through a bitset over edge ids; text is only built when format() is called.
+// On a disconnected graph the edges form a spanning forest, split into its trees by forest() on demand.
+public final class MstResult {
+	private final MstAlgorithm algorithm;
+	private final Graph graph;
+	private final int[] edges;
+	private final BitSet members;
+	private final long totalWeight;
+	private final double doubleTotalWeight;
+	private final long elapsedNanos;
+	private SpanningForest forest;
+
+	MstResult(MstAlgorithm algorithm, Graph graph, int[] edges, long elapsedNanos) {
+		this.algorithm = algorithm;
+		this.graph = graph;
+		this.edges = edges;
+		this.elapsedNanos = elapsedNanos;
+		this.members = new BitSet(graph.edgeCount());
+		long total = 0;
+		double doubleTotal = 0;
+		boolean doubles = graph.hasDoubleWeights();
+		for (int e : edges) {
+			members.set(e);
+			if (doubles) {
+				doubleTotal += graph.doubleWeight(e);
+			} else {
+				total += graph.weight(e);
+			}
+		}
+		this.totalWeight = doubles ? Math.round(doubleTotal) : total;
+		this.doubleTotalWeight = doubles ? doubleTotal : total;
+	}
+
+	public MstAlgorithm algorithm() {
+		return algorithm;
+	}
+
+	public Graph graph() {
+		return graph;
+	}
+
+	// Edge ids in the order the algorithm accepted them. Callers must not modify the array.
+	public int[] edges() {
+		return edges;
+	}
+
+	public int edgeCount() {
+		return edges.length;
+	}
+
+	public boolean contains(int edge) {
+		return members.get(edge);
+	}
+
+	// Rounded to the nearest integer for double weights
+	public long totalWeight() {
+		return totalWeight;
+	}
+
+	public double doubleTotalWeight() {
+		return doubleTotalWeight;
+	}
+
+	public String totalWeightText() {
+		return graph.hasDoubleWeights() ? Double.toString(doubleTotalWeight) : Long.toString(totalWeight);
+	}
+
+	public long elapsedNanos() {
+		return elapsedNanos;
+	}
+
+	// True when the edges span every vertex of the graph
+	public boolean isSpanningTree() {
+		return edges.length == Math.max(graph.vertexCount() - 1, 0);
+	}
+
+	// Connected components of the graph: a spanning forest has one tree edge fewer than vertices per component
+	public int componentCount() {
+		return graph.vertexCount() - edges.length;
+	}
+
+	// The edges grouped into one tree per component, built on first use
+	public synchronized SpanningForest forest() {
+		if (forest == null) {
+			forest = SpanningForest.of(graph, edges);
+		}
+		return forest;
+	}
+
+	public String summary() {
+		if (componentCount() > 1) {
+			return String.format("%s: spanning forest of %d components, %d edges, total weight %s, %.3f ms",
+					algorithm.title(), componentCount(), edges.length, totalWeightText(), elapsedNanos / 1e6);
+		}
+		return String.format("%s MST: %d edges, total weight %s, %.3f ms",
+				algorithm.title(), edges.length, totalWeightText(), elapsedNanos / 1e6);
+	}
+
+	// Full listing: title, one "source - target (weight)" line per edge, total weight.
+	// A forest is listed tree by tree, each with its own weight.
+	public String format() {
+		StringBuilder result = new StringBuilder(algorithm.title());
+		if (componentCount() > 1) {
+			result.append(" spanning forest, ").append(componentCount()).append(" components:\n");
+			forest().appendTrees(result);
+		} else {
+			result.append(" MST:\n");
+			appendEdges(result);
+		}
+		result.append("Total weight: ").append(totalWeightText()).append('\n');
+		return result.toString();
+	}
+
+	public void appendEdges(StringBuilder result) {
+		for (int edge : edges) {
+			result.append(graph.name(graph.source(edge))).append(" - ").append(graph.name(graph.target(edge)))
+			.append(" (").append(graph.weightText(edge)).append(")\n");
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package mst;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Publishes the last instrumented run to JMX so profilers and JConsole can line it up with GC activity.
+// Registered with the platform MBean server the first time a run finishes with metrics.
+final class MstRuns implements MstRunsMXBean {
+	static final MstRuns INSTANCE = new MstRuns();
+	static final String OBJECT_NAME = "mst:type=MstRuns";
+
+	private long runCount;
+	// Copies taken when the run finished, so later additions such as a formatting phase do not race with readers
+	private String lastAlgorithm = "";
+	private int lastVertexCount;
+	private int lastEdgeCount;
+	private long lastElapsedNanos;
+	private long lastAllocatedBytes = -1;
+	private Map<String, Long> lastPhaseNanos = Collections.emptyMap();
+	private Map<String, Long> lastCounters = Collections.emptyMap();
+	private String lastMetricsJson = "";
+
+	private MstRuns() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+		} catch (JMException | SecurityException e) {
+			// Metrics stay available through RunMetrics and JFR
+		}
+	}
+
+	void record(RunMetrics metrics, long elapsedNanos) {
+		Map<String, Long> phases = new LinkedHashMap<>();
+		for (String name : metrics.phaseNames()) {
+			phases.put(name, metrics.phaseNanos(name));
+		}
+		Map<String, Long> counters = new LinkedHashMap<>(metrics.counters());
+		String json = metrics.toJson();
+		synchronized (this) {
+			runCount++;
+			lastAlgorithm = metrics.algorithm();
+			lastVertexCount = metrics.vertexCount();
+			lastEdgeCount = metrics.edgeCount();
+			lastElapsedNanos = elapsedNanos;
+			lastAllocatedBytes = metrics.allocatedBytes();
+			lastPhaseNanos = phases;
+			lastCounters = counters;
+			lastMetricsJson = json;
+		}
+	}
+
+	@Override
+	public synchronized long getRunCount() {
+		return runCount;
+	}
+
+	@Override
+	public synchronized String getLastAlgorithm() {
+		return lastAlgorithm;
+	}
+
+	@Override
+	public synchronized int getLastVertexCount() {
+		return lastVertexCount;
+	}
+
+	@Override
+	public synchronized int getLastEdgeCount() {
+		return lastEdgeCount;
+	}
+
+	@Override
+	public synchronized long getLastElapsedNanos() {
+		return lastElapsedNanos;
+	}
+
+	@Override
+	public synchronized long getLastAllocatedBytes() {
+		return lastAllocatedBytes;
+	}
+
+	@Override
+	public synchronized Map<String, Long> getLastPhaseNanos() {
+		return lastPhaseNanos;
+	}
+
+	@Override
+	public synchronized Map<String, Long> getLastCounters() {
+		return lastCounters;
+	}
+
+	@Override
+	public synchronized String getLastMetricsJson() {
+		return lastMetricsJson;
+	}
+}
@@ -0,0 +1,25 @@
+package mst;
+
+import java.util.Map;
+
+// Management view of the instrumented MST runs of this JVM, registered as mst:type=MstRuns
+public interface MstRunsMXBean {
+	long getRunCount();
+
+	String getLastAlgorithm();
+
+	int getLastVertexCount();
+
+	int getLastEdgeCount();
+
+	long getLastElapsedNanos();
+
+	long getLastAllocatedBytes();
+
+	// Phase name to nanoseconds, in the order the phases ran
+	Map<String, Long> getLastPhaseNanos();
+
+	Map<String, Long> getLastCounters();
+
+	String getLastMetricsJson();
+}
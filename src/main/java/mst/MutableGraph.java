@@ -0,0 +1,360 @@
+package mst;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Editable undirected graph; toGraph() takes an immutable CSR snapshot for the algorithms.
+// Adding and removing edges and adding vertices are O(1) amortized, removing a vertex is O(1) per incident edge.
+// Edge ids stay dense: removing an edge moves the last edge into its id. Vertex ids stay stable: a removed
+// vertex leaves a hole that the next added vertex reuses, and snapshots number the live vertices densely.
+// Each edge remembers its slot in both endpoint lists, so it leaves them without a search.
+// Weights are integers until a fractional one is set, which converts all of them to double weights like Graph.
+public final class MutableGraph {
+	private final Map<String, Integer> ids = new HashMap<>();
+	private String[] names;
+	private boolean[] live;
+	private int idBase;
+	private int vertexLimit;
+	private int vertexCount;
+	private int[] freeVertices = new int[16];
+	private int freeCount;
+
+	private int[] sources;
+	private int[] targets;
+	private long[] weights;
+	private boolean doubleWeights;
+	// Slot of the edge in the incident list of its source and of its target
+	private int[] sourceSlots;
+	private int[] targetSlots;
+	private int edgeCount;
+
+	private int[][] incident;
+	private int[] incidentSize;
+
+	// Bumped by every change to the vertices or edges, but not by weight changes
+	private long structureVersion;
+	private Graph snapshot;
+	private long snapshotVersion = -1;
+
+	public MutableGraph() {
+		this(16, 16);
+	}
+
+	public MutableGraph(int expectedVertices, int expectedEdges) {
+		int n = Math.max(expectedVertices, 1);
+		int m = Math.max(expectedEdges, 1);
+		names = new String[n];
+		live = new boolean[n];
+		incident = new int[n][];
+		incidentSize = new int[n];
+		sources = new int[m];
+		targets = new int[m];
+		weights = new long[m];
+		sourceSlots = new int[m];
+		targetSlots = new int[m];
+	}
+
+	// Editable copy of graph with the same vertex and edge ids
+	public static MutableGraph of(Graph graph) {
+		int n = graph.vertexCount();
+		int m = graph.edgeCount();
+		MutableGraph copy = new MutableGraph(n, m);
+		copy.idBase = graph.idBase();
+		copy.doubleWeights = graph.hasDoubleWeights();
+		for (int v = 0; v < n; v++) {
+			copy.addUnnamedVertex();
+			String name = graph.explicitName(v);
+			if (name != null) {
+				copy.names[v] = name;
+				copy.ids.put(name, v);
+			}
+			copy.incident[v] = new int[Math.max(graph.degree(v), 2)];
+		}
+		for (int e = 0; e < m; e++) {
+			copy.addKey(graph.source(e), graph.target(e), graph.weight(e));
+		}
+		copy.snapshot = graph;
+		copy.snapshotVersion = copy.structureVersion;
+		return copy;
+	}
+
+	// Id of the vertex with this name, adding it if there is none
+	public int addVertex(String name) {
+		Integer id = ids.get(name);
+		if (id != null) {
+			return id;
+		}
+		int v = addUnnamedVertex();
+		names[v] = name;
+		ids.put(name, v);
+		return v;
+	}
+
+	// A vertex without a name, shown by its id like the vertices of unnamed graph files
+	public int addUnnamedVertex() {
+		int v;
+		if (freeCount > 0) {
+			v = freeVertices[--freeCount];
+		} else {
+			if (vertexLimit == live.length) {
+				int capacity = vertexLimit * 2;
+				names = Arrays.copyOf(names, capacity);
+				live = Arrays.copyOf(live, capacity);
+				incident = Arrays.copyOf(incident, capacity);
+				incidentSize = Arrays.copyOf(incidentSize, capacity);
+			}
+			v = vertexLimit++;
+		}
+		live[v] = true;
+		if (incident[v] == null) {
+			incident[v] = new int[2];
+		}
+		vertexCount++;
+		structureVersion++;
+		return v;
+	}
+
+	// Remove v and every edge incident to it
+	public void removeVertex(int v) {
+		checkVertex(v);
+		while (incidentSize[v] > 0) {
+			removeEdge(incident[v][incidentSize[v] - 1]);
+		}
+		if (names[v] != null) {
+			ids.remove(names[v]);
+			names[v] = null;
+		}
+		live[v] = false;
+		incident[v] = null;
+		if (freeCount == freeVertices.length) {
+			freeVertices = Arrays.copyOf(freeVertices, freeCount * 2);
+		}
+		freeVertices[freeCount++] = v;
+		vertexCount--;
+		structureVersion++;
+	}
+
+	public boolean containsVertex(int v) {
+		return v >= 0 && v < vertexLimit && live[v];
+	}
+
+	// Id of a named vertex, or -1
+	public int vertexId(String name) {
+		Integer id = ids.get(name);
+		return id == null ? -1 : id;
+	}
+
+	public String name(int v) {
+		String name = names[v];
+		return name != null ? name : Integer.toString(v + idBase);
+	}
+
+	// Live vertices
+	public int vertexCount() {
+		return vertexCount;
+	}
+
+	// Vertex ids are below this bound; ids of removed vertices in between are not live
+	public int vertexLimit() {
+		return vertexLimit;
+	}
+
+	public int degree(int v) {
+		checkVertex(v);
+		return incidentSize[v];
+	}
+
+	public int addEdge(String from, String to, long weight) {
+		return addEdge(addVertex(from), addVertex(to), weight);
+	}
+
+	public int addEdge(int from, int to, long weight) {
+		return addKey(from, to, doubleWeights ? Weights.encode(weight) : weight);
+	}
+
+	public int addEdge(String from, String to, double weight) {
+		return addEdge(addVertex(from), addVertex(to), weight);
+	}
+
+	public int addEdge(int from, int to, double weight) {
+		useDoubleWeights();
+		return addKey(from, to, Weights.encode(weight));
+	}
+
+	private int addKey(int from, int to, long weight) {
+		checkVertex(from);
+		checkVertex(to);
+		if (edgeCount == sources.length) {
+			int capacity = sources.length + (sources.length >> 1) + 1;
+			sources = Arrays.copyOf(sources, capacity);
+			targets = Arrays.copyOf(targets, capacity);
+			weights = Arrays.copyOf(weights, capacity);
+			sourceSlots = Arrays.copyOf(sourceSlots, capacity);
+			targetSlots = Arrays.copyOf(targetSlots, capacity);
+		}
+		int e = edgeCount++;
+		sources[e] = from;
+		targets[e] = to;
+		weights[e] = weight;
+		sourceSlots[e] = appendIncident(from, e);
+		// A self-loop is listed once, under its source
+		targetSlots[e] = from == to ? -1 : appendIncident(to, e);
+		structureVersion++;
+		return e;
+	}
+
+	// Remove edge e; the edge with the highest id takes over id e
+	public void removeEdge(int e) {
+		checkEdge(e);
+		removeIncident(sources[e], sourceSlots[e]);
+		if (targetSlots[e] >= 0) {
+			removeIncident(targets[e], targetSlots[e]);
+		}
+		int last = --edgeCount;
+		if (e != last) {
+			sources[e] = sources[last];
+			targets[e] = targets[last];
+			weights[e] = weights[last];
+			sourceSlots[e] = sourceSlots[last];
+			targetSlots[e] = targetSlots[last];
+			incident[sources[e]][sourceSlots[e]] = e;
+			if (targetSlots[e] >= 0) {
+				incident[targets[e]][targetSlots[e]] = e;
+			}
+		}
+		structureVersion++;
+	}
+
+	public int edgeCount() {
+		return edgeCount;
+	}
+
+	public int source(int e) {
+		checkEdge(e);
+		return sources[e];
+	}
+
+	public int target(int e) {
+		checkEdge(e);
+		return targets[e];
+	}
+
+	// The weight of e, or its key for double weights, see Graph.weight
+	public long weight(int e) {
+		checkEdge(e);
+		return weights[e];
+	}
+
+	public double doubleWeight(int e) {
+		checkEdge(e);
+		return doubleWeights ? Weights.decode(weights[e]) : weights[e];
+	}
+
+	public String weightText(int e) {
+		checkEdge(e);
+		return Weights.format(weights[e], doubleWeights);
+	}
+
+	public void setWeight(int e, long weight) {
+		checkEdge(e);
+		weights[e] = doubleWeights ? Weights.encode(weight) : weight;
+	}
+
+	public void setWeight(int e, double weight) {
+		checkEdge(e);
+		useDoubleWeights();
+		weights[e] = Weights.encode(weight);
+	}
+
+	public boolean hasDoubleWeights() {
+		return doubleWeights;
+	}
+
+	// Store weights as doubles from now on, converting the integer ones
+	public void useDoubleWeights() {
+		if (!doubleWeights) {
+			for (int e = 0; e < edgeCount; e++) {
+				weights[e] = Weights.encode(weights[e]);
+			}
+			doubleWeights = true;
+		}
+	}
+
+	// Immutable snapshot with the same edge ids and the live vertices numbered densely in id order.
+	// While only weights changed since the last snapshot, the new one shares its topology and sorted edge order.
+	public Graph toGraph() {
+		if (snapshot != null && snapshotVersion == structureVersion && snapshot.hasDoubleWeights() == doubleWeights) {
+			snapshot = snapshot.withWeights(Arrays.copyOf(weights, edgeCount));
+			return snapshot;
+		}
+		// Without holes ids map to themselves and unnamed vertices keep their displayed ids
+		boolean dense = vertexCount == vertexLimit;
+		int[] denseIds = null;
+		Graph.Builder builder = new Graph.Builder(edgeCount).idBase(dense ? idBase : 0).vertices(vertexCount);
+		if (!dense) {
+			denseIds = new int[vertexLimit];
+		}
+		if (doubleWeights) {
+			builder.doubleWeights();
+		}
+		int next = 0;
+		for (int v = 0; v < vertexLimit; v++) {
+			if (!live[v]) {
+				continue;
+			}
+			if (!dense) {
+				denseIds[v] = next;
+				builder.name(next, name(v));
+			} else if (names[v] != null) {
+				builder.name(v, names[v]);
+			}
+			next++;
+		}
+		for (int e = 0; e < edgeCount; e++) {
+			int u = dense ? sources[e] : denseIds[sources[e]];
+			int v = dense ? targets[e] : denseIds[targets[e]];
+			builder.addKey(u, v, weights[e]);
+		}
+		snapshot = builder.build();
+		snapshotVersion = structureVersion;
+		return snapshot;
+	}
+
+	private int appendIncident(int v, int e) {
+		int size = incidentSize[v];
+		if (size == incident[v].length) {
+			incident[v] = Arrays.copyOf(incident[v], size * 2);
+		}
+		incident[v][size] = e;
+		incidentSize[v] = size + 1;
+		return size;
+	}
+
+	// Swap-remove the entry at slot from v's list, updating the slot of the edge moved into it
+	private void removeIncident(int v, int slot) {
+		int last = --incidentSize[v];
+		if (slot == last) {
+			return;
+		}
+		int moved = incident[v][last];
+		incident[v][slot] = moved;
+		if (sources[moved] == v) {
+			sourceSlots[moved] = slot;
+		} else {
+			targetSlots[moved] = slot;
+		}
+	}
+
+	private void checkVertex(int v) {
+		if (!containsVertex(v)) {
+			throw new IllegalArgumentException("No vertex " + v);
+		}
+	}
+
+	private void checkEdge(int e) {
+		if (e < 0 || e >= edgeCount) {
+			throw new IndexOutOfBoundsException("No edge " + e + " among " + edgeCount);
+		}
+	}
+}
@@ -0,0 +1,396 @@
+package mst;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Parallel Boruvka MST on the fork-join pool.
+// Each round every component picks its lightest outgoing edge in parallel, the picked edges are
+// contracted through a lock-free union-find, and edges inside a component are filtered out.
+// Ties are broken by edge id, so the picked edges never form a cycle and the total weight
+// matches Prim and Kruskal.
+// primForest grows the tree of every connected component with Prim, the components in parallel.
+public final class ParallelMst {
+	private static final int GRAIN = 4096;
+
+	private ParallelMst() {
+	}
+
+	public static int[] boruvka(Graph graph) {
+		return boruvka(graph, ForkJoinPool.commonPool(), MstMonitor.NONE);
+	}
+
+	public static int[] boruvka(Graph graph, MstMonitor monitor) {
+		return boruvka(graph, ForkJoinPool.commonPool(), monitor);
+	}
+
+	// Run on a dedicated pool with the given number of worker threads
+	public static int[] boruvka(Graph graph, int parallelism) {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return boruvka(graph, pool, MstMonitor.NONE);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	// Progress is reported once per round, with scanned counting the edges already settled
+	public static int[] boruvka(Graph graph, ForkJoinPool pool, MstMonitor monitor) {
+		int n = graph.vertexCount();
+		int m = graph.edgeCount();
+		int[] sources = graph.sources();
+		int[] targets = graph.targets();
+		long[] weights = graph.weights();
+		RunMetrics metrics = monitor.metrics();
+		if (metrics != null) {
+			metrics.begin("setup");
+		}
+
+		AtomicIntegerArray parent = new AtomicIntegerArray(n);
+		AtomicIntegerArray best = new AtomicIntegerArray(n);
+		pool.invoke(new RangeTask(0, n, (from, to) -> {
+			for (int v = from; v < to; v++) {
+				parent.set(v, v);
+				best.set(v, -1);
+			}
+		}));
+
+		// Live edges: those that may still connect two different components
+		int[] live = new int[m];
+		int liveCount = 0;
+		for (int e = 0; e < m; e++) {
+			if (sources[e] != targets[e]) {
+				live[liveCount++] = e;
+			}
+		}
+
+		int[] mst = new int[Math.max(n - 1, 0)];
+		AtomicInteger count = new AtomicInteger();
+		int chunks = Math.max(1, (liveCount + GRAIN - 1) / GRAIN);
+		int[] survivors = new int[chunks];
+
+		int rounds = 0;
+		while (liveCount > 0 && count.get() < mst.length) {
+			monitor.checkpoint(count.get(), m - liveCount, m);
+			int[] edges = live;
+			int size = liveCount;
+			int chunkCount = (size + GRAIN - 1) / GRAIN;
+			rounds++;
+			if (metrics != null) {
+				metrics.count("edges scanned", size);
+				metrics.begin("select");
+			}
+
+			// Step 1: Every component finds its lightest outgoing edge; internal edges are dropped
+			pool.invoke(new RangeTask(0, chunkCount, 1, (fromChunk, toChunk) -> {
+				if (monitor.isCancelled()) {
+					throw new CancellationException("MST computation cancelled");
+				}
+				for (int c = fromChunk; c < toChunk; c++) {
+					int start = c * GRAIN;
+					int end = Math.min(start + GRAIN, size);
+					int kept = start;
+					for (int i = start; i < end; i++) {
+						int e = edges[i];
+						int ru = find(parent, sources[e]);
+						int rv = find(parent, targets[e]);
+						if (ru != rv) {
+							edges[kept++] = e;
+							offer(best, ru, e, weights);
+							offer(best, rv, e, weights);
+						}
+					}
+					survivors[c] = kept - start;
+				}
+			}));
+
+			// Step 2: Contract along the chosen edges
+			if (metrics != null) {
+				metrics.begin("contract");
+			}
+			pool.invoke(new RangeTask(0, n, (from, to) -> {
+				for (int v = from; v < to; v++) {
+					int e = best.get(v);
+					if (e >= 0) {
+						best.set(v, -1);
+						if (union(parent, sources[e], targets[e])) {
+							mst[count.getAndIncrement()] = e;
+						}
+					}
+				}
+			}));
+
+			// Step 3: Compact the surviving edges of each chunk to the front
+			if (metrics != null) {
+				metrics.begin("compact");
+			}
+			int next = 0;
+			for (int c = 0; c < chunkCount; c++) {
+				if (survivors[c] > 0) {
+					System.arraycopy(edges, c * GRAIN, edges, next, survivors[c]);
+					next += survivors[c];
+				}
+			}
+			liveCount = next;
+		}
+
+		int accepted = count.get();
+		if (metrics != null) {
+			metrics.end();
+			metrics.count("rounds", rounds);
+		}
+		monitor.progress(accepted, m, m);
+		return accepted == mst.length ? mst : Arrays.copyOf(mst, accepted);
+	}
+
+	public static int[] primForest(Graph graph, MstMonitor monitor) {
+		return primForest(graph, ForkJoinPool.commonPool(), monitor);
+	}
+
+	// Minimum spanning forest: a lazy Prim per connected component, grown from the component's lowest vertex.
+	// The tree edges come out grouped by component in order of that vertex, each component writing to its own
+	// slice of the result, so the tasks share nothing but the visited flags of their disjoint vertex sets.
+	// Progress counts the labelling pass and the Prim pass as one scan of the edges each.
+	public static int[] primForest(Graph graph, ForkJoinPool pool, MstMonitor monitor) {
+		int n = graph.vertexCount();
+		int m = graph.edgeCount();
+		int[] sources = graph.sources();
+		int[] targets = graph.targets();
+		int[] offsets = graph.offsets();
+		int[] adjTarget = graph.adjacentTargets();
+		int[] adjEdge = graph.adjacentEdges();
+		long[] weights = graph.weights();
+		RunMetrics metrics = monitor.metrics();
+		monitor.checkpoint(0, 0, 2L * m);
+		if (metrics != null) {
+			metrics.begin("components");
+		}
+
+		// Step 1: Label the components. Union links the larger root under the smaller one,
+		// so each component ends up rooted at its lowest vertex, which becomes its start vertex.
+		AtomicIntegerArray parent = new AtomicIntegerArray(n);
+		pool.invoke(new RangeTask(0, n, (from, to) -> {
+			for (int v = from; v < to; v++) {
+				parent.set(v, v);
+			}
+		}));
+		pool.invoke(new RangeTask(0, m, (from, to) -> {
+			if (monitor.isCancelled()) {
+				throw new CancellationException("MST computation cancelled");
+			}
+			for (int e = from; e < to; e++) {
+				if (sources[e] != targets[e]) {
+					union(parent, sources[e], targets[e]);
+				}
+			}
+		}));
+		int[] root = new int[n];
+		pool.invoke(new RangeTask(0, n, (from, to) -> {
+			for (int v = from; v < to; v++) {
+				root[v] = find(parent, v);
+			}
+		}));
+
+		// Step 2: Number the components by their root and give each a slice for its vertexCount - 1 tree edges
+		monitor.checkpoint(0, m, 2L * m);
+		if (metrics != null) {
+			metrics.begin("group");
+		}
+		int[] componentOf = new int[n];
+		int components = 0;
+		for (int v = 0; v < n; v++) {
+			if (root[v] == v) {
+				componentOf[v] = components++;
+			}
+		}
+		int[] starts = new int[components];
+		int[] sizes = new int[components];
+		for (int v = 0; v < n; v++) {
+			int c = componentOf[root[v]];
+			if (root[v] == v) {
+				starts[c] = v;
+			}
+			sizes[c]++;
+		}
+		int[] treeStart = new int[components + 1];
+		int largest = 0;
+		int largeCount = 0;
+		int treeCount = 0;
+		for (int c = 0; c < components; c++) {
+			treeStart[c + 1] = treeStart[c] + sizes[c] - 1;
+			largest = Math.max(largest, sizes[c]);
+			if (sizes[c] >= GRAIN) {
+				largeCount++;
+			}
+			if (sizes[c] > 1) {
+				treeCount++;
+			}
+		}
+		// Components with an edge, the large ones first: each of those is a task of its own,
+		// while the small ones are handed out in batches so tiny components do not cost a task each
+		int[] order = new int[treeCount];
+		int nextLarge = 0;
+		int nextSmall = largeCount;
+		for (int c = 0; c < components; c++) {
+			if (sizes[c] >= GRAIN) {
+				order[nextLarge++] = c;
+			} else if (sizes[c] > 1) {
+				order[nextSmall++] = c;
+			}
+		}
+
+		// Step 3: Grow every tree; a component is connected, so its Prim stops exactly when the heap runs dry
+		if (metrics != null) {
+			metrics.begin("prim");
+		}
+		boolean[] visited = new boolean[n];
+		int[] mst = new int[n - components];
+		RangeBody grow = (from, to) -> {
+			int[] heap = new int[64];
+			for (int i = from; i < to; i++) {
+				if (monitor.isCancelled()) {
+					throw new CancellationException("MST computation cancelled");
+				}
+				int c = order[i];
+				heap = growTree(offsets, adjTarget, adjEdge, weights, visited, starts[c], mst, treeStart[c], heap, monitor);
+			}
+		};
+		int smallGrain = Math.max(1, (treeCount - largeCount) / (pool.getParallelism() * 8));
+		ForkJoinTask<Void> small = pool.submit(new RangeTask(largeCount, treeCount, smallGrain, grow));
+		pool.invoke(new RangeTask(0, largeCount, 1, grow));
+		small.join();
+
+		if (metrics != null) {
+			metrics.end();
+			metrics.count("components", components);
+			metrics.count("largest component", largest);
+			metrics.count("isolated vertices", components - treeCount);
+		}
+		monitor.progress(mst.length, 2L * m, 2L * m);
+		return mst;
+	}
+
+	// Lazy Prim over the component of start, writing its tree edges to mst from position at.
+	// Returns the heap, which grows as needed and is reused for the next component of the batch.
+	private static int[] growTree(int[] offsets, int[] adjTarget, int[] adjEdge, long[] weights, boolean[] visited,
+	                              int start, int[] mst, int at, int[] heap, MstMonitor monitor) {
+		int size = 0;
+		long polls = 0;
+		int v = start;
+		while (v >= 0) {
+			visited[v] = true;
+			for (int s = offsets[v]; s < offsets[v + 1]; s++) {
+				if (!visited[adjTarget[s]]) {
+					if (size == heap.length) {
+						heap = Arrays.copyOf(heap, size * 2);
+					}
+					heap[size] = s;
+					Mst.siftUp(heap, size++, adjEdge, weights);
+				}
+			}
+			v = -1;
+			while (size > 0 && v < 0) {
+				if ((++polls & (Mst.CHECKPOINT_INTERVAL - 1)) == 0 && monitor.isCancelled()) {
+					throw new CancellationException("MST computation cancelled");
+				}
+				int slot = heap[0];
+				heap[0] = heap[--size];
+				Mst.siftDown(heap, 0, size, adjEdge, weights);
+				if (!visited[adjTarget[slot]]) {
+					v = adjTarget[slot];
+					mst[at++] = adjEdge[slot];
+				}
+			}
+		}
+		return heap;
+	}
+
+	// Lock-free find with path halving
+	private static int find(AtomicIntegerArray parent, int x) {
+		while (true) {
+			int p = parent.get(x);
+			if (p == x) {
+				return x;
+			}
+			int gp = parent.get(p);
+			if (p != gp) {
+				parent.compareAndSet(x, p, gp);
+			}
+			x = gp;
+		}
+	}
+
+	// Lock-free union: always link the larger root id under the smaller one, so no cycles can form
+	private static boolean union(AtomicIntegerArray parent, int a, int b) {
+		while (true) {
+			a = find(parent, a);
+			b = find(parent, b);
+			if (a == b) {
+				return false;
+			}
+			if (a < b) {
+				int t = a;
+				a = b;
+				b = t;
+			}
+			if (parent.compareAndSet(a, a, b)) {
+				return true;
+			}
+		}
+	}
+
+	// Record e as the best edge of component root if it is lighter than the current one
+	private static void offer(AtomicIntegerArray best, int root, int e, long[] weights) {
+		while (true) {
+			int current = best.get(root);
+			if (current >= 0 && !lighter(e, current, weights)) {
+				return;
+			}
+			if (best.compareAndSet(root, current, e)) {
+				return;
+			}
+		}
+	}
+
+	private static boolean lighter(int a, int b, long[] weights) {
+		return weights[a] < weights[b] || (weights[a] == weights[b] && a < b);
+	}
+
+	// Also used by ForceLayout for its per-vertex passes
+	interface RangeBody {
+		void run(int from, int to);
+	}
+
+	// Splits [from, to) in halves until ranges are at most grain long
+	static final class RangeTask extends RecursiveAction {
+		private final int from;
+		private final int to;
+		private final int grain;
+		private final RangeBody body;
+
+		RangeTask(int from, int to, RangeBody body) {
+			this(from, to, GRAIN, body);
+		}
+
+		RangeTask(int from, int to, int grain, RangeBody body) {
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.body = body;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grain) {
+				body.run(from, to);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new RangeTask(from, mid, grain, body), new RangeTask(mid, to, grain, body));
+		}
+	}
+}
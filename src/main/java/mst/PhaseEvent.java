@@ -0,0 +1,19 @@
+package mst;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// JFR event spanning one phase of an instrumented MST run, see RunMetrics
+@Name("mst.Phase")
+@Label("MST Phase")
+@Category("MST")
+@Description("One timed phase of an instrumented MST run")
+final class PhaseEvent extends jdk.jfr.Event {
+	@Label("Algorithm")
+	String algorithm;
+
+	@Label("Phase")
+	String phase;
+}
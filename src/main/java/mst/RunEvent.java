@@ -0,0 +1,33 @@
+package mst;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// JFR event committed when an instrumented MST run finishes, see RunMetrics
+@Name("mst.Run")
+@Label("MST Run")
+@Category("MST")
+@Description("An instrumented MST run with its size, time and allocation estimate")
+final class RunEvent extends jdk.jfr.Event {
+	@Label("Algorithm")
+	String algorithm;
+
+	@Label("Vertices")
+	int vertices;
+
+	@Label("Edges")
+	int edges;
+
+	@Label("Elapsed")
+	@Timespan(Timespan.NANOSECONDS)
+	long elapsedNanos;
+
+	// -1 when the JVM cannot measure thread allocation
+	@Label("Allocated")
+	@DataAmount
+	long allocatedBytes;
+}
@@ -0,0 +1,222 @@
+package mst;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Phase timings, operation counters and an allocation estimate for one MST run.
+// A run is instrumented when its monitor returns a RunMetrics from metrics(); algorithms then time their phases
+// and report counters they kept in locals, so an uninstrumented run pays nothing per step.
+// Every phase is also committed as a JFR event and every finished run is published to the MstRuns MBean.
+// Filled by the thread running the algorithm, read once the run has finished.
+public final class RunMetrics {
+	// Header of the rows toCsv produces; phases are in nanoseconds
+	public static final String CSV_HEADER = "algorithm,vertices,edges,kind,name,value";
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	// Instantiating the first JFR event loads the JFR runtime, which takes long enough to distort the first run
+	static {
+		new PhaseEvent();
+		new RunEvent();
+	}
+
+	private String algorithm = "";
+	private int vertices;
+	private int edges;
+	private final List<String> phaseNames = new ArrayList<>();
+	private final List<Long> phaseNanos = new ArrayList<>();
+	private final Map<String, Long> counters = new LinkedHashMap<>();
+	private long allocatedBytes = -1;
+
+	// Phase in progress, if any
+	private String phase;
+	private long phaseStart;
+	private PhaseEvent phaseEvent;
+	private long allocationStart;
+
+	// Set by MstAlgorithm.run before the first phase
+	void start(MstAlgorithm algorithm, Graph graph) {
+		this.algorithm = algorithm.title();
+		this.vertices = graph.vertexCount();
+		this.edges = graph.edgeCount();
+		allocationStart = allocatedByThisThread();
+	}
+
+	void finish(long elapsedNanos) {
+		end();
+		long allocated = allocatedByThisThread();
+		if (allocated >= 0 && allocationStart >= 0) {
+			allocatedBytes = allocated - allocationStart;
+		}
+		RunEvent event = new RunEvent();
+		if (event.shouldCommit()) {
+			event.algorithm = algorithm;
+			event.vertices = vertices;
+			event.edges = edges;
+			event.elapsedNanos = elapsedNanos;
+			event.allocatedBytes = allocatedBytes;
+			event.commit();
+		}
+		MstRuns.INSTANCE.record(this, elapsedNanos);
+	}
+
+	// End the current phase, if any, and start timing the named one
+	public void begin(String name) {
+		end();
+		phase = name;
+		phaseEvent = new PhaseEvent();
+		phaseEvent.begin();
+		phaseStart = System.nanoTime();
+	}
+
+	public void end() {
+		if (phase == null) {
+			return;
+		}
+		addPhase(phase, System.nanoTime() - phaseStart);
+		phaseEvent.end();
+		if (phaseEvent.shouldCommit()) {
+			phaseEvent.algorithm = algorithm;
+			phaseEvent.phase = phase;
+			phaseEvent.commit();
+		}
+		phase = null;
+		phaseEvent = null;
+	}
+
+	// Record a phase timed elsewhere, e.g. building the graph before the run or formatting after it.
+	// A phase seen again accumulates.
+	public void addPhase(String name, long nanos) {
+		int i = phaseNames.indexOf(name);
+		if (i < 0) {
+			phaseNames.add(name);
+			phaseNanos.add(nanos);
+		} else {
+			phaseNanos.set(i, phaseNanos.get(i) + nanos);
+		}
+	}
+
+	public void count(String name, long value) {
+		counters.merge(name, value, Long::sum);
+	}
+
+	public String algorithm() {
+		return algorithm;
+	}
+
+	public int vertexCount() {
+		return vertices;
+	}
+
+	public int edgeCount() {
+		return edges;
+	}
+
+	public List<String> phaseNames() {
+		return phaseNames;
+	}
+
+	public long phaseNanos(String name) {
+		int i = phaseNames.indexOf(name);
+		return i < 0 ? 0 : phaseNanos.get(i);
+	}
+
+	public Map<String, Long> counters() {
+		return counters;
+	}
+
+	// Bytes allocated by the thread that ran the algorithm, or -1 if the JVM cannot tell.
+	// Work done on other threads, e.g. the fork-join workers of Boruvka, is not included.
+	public long allocatedBytes() {
+		return allocatedBytes;
+	}
+
+	// One line per phase and counter, for display
+	public String format() {
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < phaseNames.size(); i++) {
+			result.append(String.format("%-24s %10.3f ms%n", phaseNames.get(i), phaseNanos.get(i) / 1e6));
+		}
+		for (Map.Entry<String, Long> counter : counters.entrySet()) {
+			result.append(String.format("%-24s %13d%n", counter.getKey(), counter.getValue()));
+		}
+		if (allocatedBytes >= 0) {
+			result.append(String.format("%-24s %10.3f MB%n", "allocated", allocatedBytes / 1e6));
+		}
+		return result.toString();
+	}
+
+	public String toJson() {
+		StringBuilder json = new StringBuilder("{\"algorithm\":");
+		appendJsonString(json, algorithm);
+		json.append(",\"vertices\":").append(vertices).append(",\"edges\":").append(edges).append(",\"phases\":{");
+		for (int i = 0; i < phaseNames.size(); i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendJsonString(json, phaseNames.get(i));
+			json.append(':').append(phaseNanos.get(i));
+		}
+		json.append("},\"counters\":{");
+		boolean first = true;
+		for (Map.Entry<String, Long> counter : counters.entrySet()) {
+			if (!first) {
+				json.append(',');
+			}
+			first = false;
+			appendJsonString(json, counter.getKey());
+			json.append(':').append(counter.getValue());
+		}
+		return json.append("},\"allocatedBytes\":").append(allocatedBytes).append('}').toString();
+	}
+
+	// One row per phase, counter and the allocation estimate, without the header
+	public String toCsv() {
+		StringBuilder csv = new StringBuilder();
+		String prefix = csvField(algorithm) + "," + vertices + "," + edges + ",";
+		for (int i = 0; i < phaseNames.size(); i++) {
+			csv.append(prefix).append("phase,").append(csvField(phaseNames.get(i))).append(',').append(phaseNanos.get(i)).append('\n');
+		}
+		for (Map.Entry<String, Long> counter : counters.entrySet()) {
+			csv.append(prefix).append("counter,").append(csvField(counter.getKey())).append(',').append(counter.getValue()).append('\n');
+		}
+		csv.append(prefix).append("allocation,allocatedBytes,").append(allocatedBytes).append('\n');
+		return csv.toString();
+	}
+
+	private static void appendJsonString(StringBuilder json, String value) {
+		json.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				json.append('\\').append(c);
+			} else if (c < 0x20) {
+				json.append(String.format("\\u%04x", (int) c));
+			} else {
+				json.append(c);
+			}
+		}
+		json.append('"');
+	}
+
+	private static String csvField(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	private static long allocatedByThisThread() {
+		if (THREADS instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+			if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+				return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,178 @@
+package mst;
+
+import java.util.Arrays;
+
+// The trees of a minimum spanning forest, one per connected component of the graph.
+// Built from the tree edges of a result: those edges connect exactly the vertices of each component,
+// so a union-find over them labels the components without another pass over the graph.
+// Components are numbered by their lowest vertex id, which is also the vertex their tree is grown from.
+public final class SpanningForest {
+	private final Graph graph;
+	private final int[] componentOf;
+	// Component c has the vertices counted in vertexCounts[c], its lowest vertex roots[c],
+	// and its tree edges at treeEdges[edgeStart[c]] up to treeEdges[edgeStart[c + 1]]
+	private final int[] roots;
+	private final int[] vertexCounts;
+	private final int[] edgeStart;
+	private final int[] treeEdges;
+	private final long[] weights;
+	// Tree weights of a graph with double weights, null otherwise
+	private final double[] doubleWeights;
+
+	private SpanningForest(Graph graph, int[] componentOf, int[] roots, int[] vertexCounts, int[] edgeStart,
+	                       int[] treeEdges, long[] weights, double[] doubleWeights) {
+		this.graph = graph;
+		this.componentOf = componentOf;
+		this.roots = roots;
+		this.vertexCounts = vertexCounts;
+		this.edgeStart = edgeStart;
+		this.treeEdges = treeEdges;
+		this.weights = weights;
+		this.doubleWeights = doubleWeights;
+	}
+
+	// Group the edges of a spanning forest of graph by component
+	public static SpanningForest of(Graph graph, int[] edges) {
+		int n = graph.vertexCount();
+		UnionFind trees = new UnionFind(n);
+		for (int e : edges) {
+			trees.union(graph.source(e), graph.target(e));
+		}
+
+		// Number the components in order of their lowest vertex
+		int[] componentOf = new int[n];
+		int[] componentOfRoot = new int[n];
+		int count = 0;
+		for (int v = 0; v < n; v++) {
+			int root = trees.find(v);
+			if (componentOfRoot[root] == 0) {
+				componentOfRoot[root] = ++count;
+			}
+			componentOf[v] = componentOfRoot[root] - 1;
+		}
+
+		int[] roots = new int[count];
+		int[] vertexCounts = new int[count];
+		for (int v = n - 1; v >= 0; v--) {
+			roots[componentOf[v]] = v;
+			vertexCounts[componentOf[v]]++;
+		}
+
+		// Counting sort of the edges by component, keeping the order the algorithm accepted them in
+		int[] edgeStart = new int[count + 1];
+		long[] weights = new long[count];
+		double[] doubleWeights = graph.hasDoubleWeights() ? new double[count] : null;
+		for (int e : edges) {
+			int c = componentOf[graph.source(e)];
+			edgeStart[c + 1]++;
+			if (doubleWeights != null) {
+				doubleWeights[c] += graph.doubleWeight(e);
+			} else {
+				weights[c] += graph.weight(e);
+			}
+		}
+		if (doubleWeights != null) {
+			for (int c = 0; c < count; c++) {
+				weights[c] = Math.round(doubleWeights[c]);
+			}
+		}
+		for (int c = 0; c < count; c++) {
+			edgeStart[c + 1] += edgeStart[c];
+		}
+		int[] next = Arrays.copyOf(edgeStart, count);
+		int[] grouped = new int[edges.length];
+		for (int e : edges) {
+			grouped[next[componentOf[graph.source(e)]]++] = e;
+		}
+		return new SpanningForest(graph, componentOf, roots, vertexCounts, edgeStart, grouped, weights, doubleWeights);
+	}
+
+	public Graph graph() {
+		return graph;
+	}
+
+	public int componentCount() {
+		return roots.length;
+	}
+
+	public int componentOf(int vertex) {
+		return componentOf[vertex];
+	}
+
+	// Lowest vertex id of component c
+	public int root(int component) {
+		return roots[component];
+	}
+
+	public int vertexCount(int component) {
+		return vertexCounts[component];
+	}
+
+	public int edgeCount(int component) {
+		return edgeStart[component + 1] - edgeStart[component];
+	}
+
+	// The i-th tree edge of component c
+	public int edge(int component, int i) {
+		return treeEdges[edgeStart[component] + i];
+	}
+
+	// Rounded to the nearest integer for double weights
+	public long weight(int component) {
+		return weights[component];
+	}
+
+	public double doubleWeight(int component) {
+		return doubleWeights != null ? doubleWeights[component] : weights[component];
+	}
+
+	public String weightText(int component) {
+		return doubleWeights != null ? Double.toString(doubleWeights[component]) : Long.toString(weights[component]);
+	}
+
+	// Component with the most vertices, the lowest one on ties; -1 for a graph without vertices
+	public int largest() {
+		if (roots.length == 0) {
+			return -1;
+		}
+		int best = 0;
+		for (int c = 1; c < roots.length; c++) {
+			if (vertexCounts[c] > vertexCounts[best]) {
+				best = c;
+			}
+		}
+		return best;
+	}
+
+	// Vertices that have no edge at all, each a component of its own
+	public int isolatedCount() {
+		int isolated = 0;
+		for (int count : vertexCounts) {
+			if (count == 1) {
+				isolated++;
+			}
+		}
+		return isolated;
+	}
+
+	// "Tree 2 from d: 4 vertices, total weight 9" followed by its edges, for every component with an edge.
+	// Isolated vertices are only counted, since a graph file may have millions of them.
+	public void appendTrees(StringBuilder result) {
+		for (int c = 0; c < roots.length; c++) {
+			if (edgeCount(c) == 0) {
+				continue;
+			}
+			result.append("Tree ").append(c + 1).append(" from ").append(graph.name(roots[c])).append(": ")
+			.append(vertexCounts[c]).append(" vertices, total weight ").append(weightText(c)).append('\n');
+			for (int i = edgeStart[c]; i < edgeStart[c + 1]; i++) {
+				int e = treeEdges[i];
+				result.append("  ").append(graph.name(graph.source(e))).append(" - ").append(graph.name(graph.target(e)))
+				.append(" (").append(graph.weightText(e)).append(")\n");
+			}
+		}
+		int isolated = isolatedCount();
+		if (isolated > 0) {
+			result.append("Isolated vertices: ").append(isolated).append('\n');
+		}
+	}
+}
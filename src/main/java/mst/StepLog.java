@@ -0,0 +1,210 @@
+package mst;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Compact record of the steps of a Kruskal or Prim run, for replaying it afterwards with StepReplay.
+// A step is one long: its kind in the top 3 bits, a 30-bit counter (heap size for Prim, components left for
+// Kruskal, saturating) and the 31-bit edge id. Steps fill a block of memory; once it is full a ring log
+// overwrites its oldest steps and a spilling log appends the block to a temporary file, deleted on close.
+// Algorithms are handed a null log when nothing is recorded, so not recording costs one branch per step.
+// A log is written by one run and read once that run has finished.
+public final class StepLog implements Closeable {
+	public enum Kind {
+		// The edge joined the heap or fringe
+		CANDIDATE("considered"),
+		ACCEPTED("accepted"),
+		// Both endpoints were already connected by the tree
+		REJECTED_CYCLE("rejected, closes a cycle"),
+		// A lighter edge already reaches the same fringe vertex
+		REJECTED_HEAVIER("rejected, lighter edge known");
+
+		private final String description;
+
+		Kind(String description) {
+			this.description = description;
+		}
+
+		public String description() {
+			return description;
+		}
+	}
+
+	static final int CANDIDATE = 0;
+	static final int ACCEPTED = 1;
+	static final int REJECTED_CYCLE = 2;
+	static final int REJECTED_HEAVIER = 3;
+
+	private static final Kind[] KINDS = Kind.values();
+	private static final int KIND_SHIFT = 61;
+	private static final int COUNTER_SHIFT = 31;
+	private static final int COUNTER_MAX = (1 << 30) - 1;
+	private static final long EDGE_MASK = (1L << COUNTER_SHIFT) - 1;
+	// Steps per spilled block and per block read back while replaying
+	private static final int SPILL_BLOCK = 1 << 16;
+	private static final int READ_BLOCK = 1 << 13;
+
+	private final long[] block;
+	private final boolean ring;
+	private final Path file;
+	private final FileChannel channel;
+	private ByteBuffer io;
+	private String counterLabel = "";
+
+	// Steps recorded in total, and how many of them went to the file
+	private long size;
+	private long spilled;
+	// Slot of the next step in block
+	private int next;
+
+	// Block of spilled steps last read back, starting at step cachedFrom
+	private long[] cached;
+	private long cachedFrom;
+
+	private StepLog(int capacity, Path file, FileChannel channel) {
+		this.block = new long[capacity];
+		this.ring = channel == null;
+		this.file = file;
+		this.channel = channel;
+	}
+
+	// Keeps only the last capacity steps in memory
+	public static StepLog ring(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Step log capacity must be positive: " + capacity);
+		}
+		return new StepLog(capacity, null, null);
+	}
+
+	// Keeps every step, spilling full blocks to a temporary file in directory (the default one when null)
+	public static StepLog spilling(Path directory) throws IOException {
+		Path file = directory == null ? Files.createTempFile("mst-steps", ".bin")
+				: Files.createTempFile(directory, "mst-steps", ".bin");
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+				StandardOpenOption.DELETE_ON_CLOSE);
+		return new StepLog(SPILL_BLOCK, file, channel);
+	}
+
+	// Called by the algorithm before its first step; names the counter stored with each step
+	void begin(String counterLabel) {
+		this.counterLabel = counterLabel;
+	}
+
+	void record(int kind, int edge, long counter) {
+		long step = (long) kind << KIND_SHIFT | Math.min(counter, COUNTER_MAX) << COUNTER_SHIFT | edge;
+		if (next == block.length) {
+			if (!ring) {
+				spill();
+			}
+			next = 0;
+		}
+		block[next++] = step;
+		size++;
+	}
+
+	private void spill() {
+		if (io == null) {
+			io = ByteBuffer.allocate(block.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		io.clear();
+		io.asLongBuffer().put(block);
+		try {
+			long position = spilled * Long.BYTES;
+			while (io.hasRemaining()) {
+				position += channel.write(io, position);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot spill steps to " + file, e);
+		}
+		spilled += block.length;
+	}
+
+	public String counterLabel() {
+		return counterLabel;
+	}
+
+	// Steps recorded, including those a ring has since overwritten
+	public long size() {
+		return size;
+	}
+
+	// Index of the oldest step still available
+	public long first() {
+		return ring ? Math.max(0, size - block.length) : 0;
+	}
+
+	public Kind kind(long index) {
+		return KINDS[kindOf(step(index))];
+	}
+
+	public int edge(long index) {
+		return edgeOf(step(index));
+	}
+
+	public int counter(long index) {
+		return (int) (step(index) >>> COUNTER_SHIFT) & COUNTER_MAX;
+	}
+
+	static int kindOf(long step) {
+		return (int) (step >>> KIND_SHIFT);
+	}
+
+	static int edgeOf(long step) {
+		return (int) (step & EDGE_MASK);
+	}
+
+	// Raw step, packed as described above
+	long step(long index) {
+		if (index < first() || index >= size) {
+			throw new IndexOutOfBoundsException("Step " + index + " outside [" + first() + ", " + size + ")");
+		}
+		if (ring) {
+			return block[(int) (index % block.length)];
+		}
+		if (index >= spilled) {
+			return block[(int) (index - spilled)];
+		}
+		if (cached == null || index < cachedFrom || index >= cachedFrom + READ_BLOCK) {
+			readBack(index - index % READ_BLOCK);
+		}
+		return cached[(int) (index - cachedFrom)];
+	}
+
+	private void readBack(long from) {
+		int count = (int) Math.min(READ_BLOCK, spilled - from);
+		ByteBuffer in = ByteBuffer.allocate(count * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			long position = from * Long.BYTES;
+			while (in.hasRemaining()) {
+				int read = channel.read(in, position);
+				if (read < 0) {
+					throw new IOException("unexpected end of file");
+				}
+				position += read;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot read steps from " + file, e);
+		}
+		in.flip();
+		if (cached == null) {
+			cached = new long[READ_BLOCK];
+		}
+		in.asLongBuffer().get(cached, 0, count);
+		cachedFrom = from;
+	}
+
+	// Deletes the spill file, if any
+	@Override
+	public void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+		}
+	}
+}
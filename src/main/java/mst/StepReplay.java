@@ -0,0 +1,145 @@
+package mst;
+
+// Replays a StepLog over its graph: the state of every edge after any number of steps, reached by applying
+// or undoing steps one at a time from the current position, so scrubbing costs the distance moved.
+// An edge only ever moves from untouched to candidate to accepted or rejected, which makes every step
+// reversible from the edge's state alone. A ring log starts the replay at its oldest kept step, as if
+// nothing had happened before it.
+public final class StepReplay {
+	public static final int UNTOUCHED = 0;
+	public static final int CANDIDATE = 1;
+	public static final int ACCEPTED = 2;
+	public static final int REJECTED = 3;
+
+	// Low bits hold the state above; this bit remembers that the edge was a candidate before its verdict
+	private static final int STATE_MASK = 3;
+	private static final int WAS_CANDIDATE = 4;
+
+	private final Graph graph;
+	private final StepLog log;
+	private final byte[] states;
+	private long position;
+	private int accepted;
+	private int rejected;
+	private int candidates;
+
+	public StepReplay(Graph graph, StepLog log) {
+		this.graph = graph;
+		this.log = log;
+		this.states = new byte[graph.edgeCount()];
+		this.position = log.first();
+	}
+
+	public Graph graph() {
+		return graph;
+	}
+
+	public StepLog log() {
+		return log;
+	}
+
+	public long first() {
+		return log.first();
+	}
+
+	public long last() {
+		return log.size();
+	}
+
+	// Number of steps applied so far, counted from the start of the run
+	public long position() {
+		return position;
+	}
+
+	// Apply or undo steps until exactly target steps are applied
+	public void seek(long target) {
+		target = Math.max(first(), Math.min(last(), target));
+		while (position < target) {
+			apply(position++);
+		}
+		while (position > target) {
+			undo(--position);
+		}
+	}
+
+	public int state(int edge) {
+		return states[edge] & STATE_MASK;
+	}
+
+	public int acceptedCount() {
+		return accepted;
+	}
+
+	public int rejectedCount() {
+		return rejected;
+	}
+
+	// Edges currently waiting as candidates
+	public int candidateCount() {
+		return candidates;
+	}
+
+	// Edge of the last applied step, or -1 at the start
+	public int currentEdge() {
+		return position > first() ? log.edge(position - 1) : -1;
+	}
+
+	// "Step 12 of 40: a - b (4) accepted, heap 3"
+	public String describe() {
+		if (position == first()) {
+			return "Step " + position + " of " + last();
+		}
+		long index = position - 1;
+		int e = log.edge(index);
+		return "Step " + position + " of " + last() + ": " + graph.name(graph.source(e)) + " - "
+				+ graph.name(graph.target(e)) + " (" + graph.weightText(e) + ") " + log.kind(index).description()
+				+ ", " + log.counterLabel() + " " + log.counter(index);
+	}
+
+	private void apply(long index) {
+		long step = log.step(index);
+		int kind = StepLog.kindOf(step);
+		int e = StepLog.edgeOf(step);
+		int before = states[e];
+		if (kind == StepLog.CANDIDATE) {
+			states[e] = (byte) (CANDIDATE | WAS_CANDIDATE);
+			candidates++;
+			return;
+		}
+		if ((before & STATE_MASK) == CANDIDATE) {
+			candidates--;
+		}
+		if (kind == StepLog.ACCEPTED) {
+			states[e] = (byte) (ACCEPTED | before & WAS_CANDIDATE);
+			accepted++;
+		} else {
+			states[e] = (byte) (REJECTED | before & WAS_CANDIDATE);
+			rejected++;
+		}
+	}
+
+	private void undo(long index) {
+		int e = StepLog.edgeOf(log.step(index));
+		int before = states[e];
+		switch (before & STATE_MASK) {
+			case CANDIDATE:
+				states[e] = UNTOUCHED;
+				candidates--;
+				return;
+			case ACCEPTED:
+				accepted--;
+				break;
+			case REJECTED:
+				rejected--;
+				break;
+			default:
+				return;
+		}
+		if ((before & WAS_CANDIDATE) != 0) {
+			states[e] = (byte) (CANDIDATE | WAS_CANDIDATE);
+			candidates++;
+		} else {
+			states[e] = UNTOUCHED;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package mst;
+
+import java.util.Arrays;
+
+// Disjoint-set forest over the int ids [0, size).
+// Union by size keeps trees shallow; find uses iterative path halving, so no recursion.
+public final class UnionFind {
+	private int[] parent;
+	private int[] size;
+	private int elements;
+	private int components;
+
+	public UnionFind(int n) {
+		parent = new int[n];
+		size = new int[n];
+		reset();
+	}
+
+	// Put every element back into its own singleton set
+	public void reset() {
+		reset(elements == 0 ? parent.length : elements);
+	}
+
+	// Start over with the n elements [0, n), growing the arrays only if they are too small; used by MstBatch
+	// to run one union-find per worker thread over many graphs
+	void reset(int n) {
+		if (n > parent.length) {
+			parent = new int[n];
+			size = new int[n];
+		}
+		for (int i = 0; i < n; i++) {
+			parent[i] = i;
+		}
+		Arrays.fill(size, 0, n, 1);
+		elements = n;
+		components = n;
+	}
+
+	public int find(int x) {
+		int[] p = parent;
+		while (p[x] != x) {
+			p[x] = p[p[x]];
+			x = p[x];
+		}
+		return x;
+	}
+
+	// find for instrumented runs: the root in the low 32 bits and the parent links followed in the high 32,
+	// which the caller adds up in a local, so find itself stays free of counters
+	long findCounting(int x) {
+		int[] p = parent;
+		long steps = 0;
+		while (p[x] != x) {
+			p[x] = p[p[x]];
+			x = p[x];
+			steps++;
+		}
+		return steps << 32 | x;
+	}
+
+	// Merge the sets containing a and b; returns false if they were already joined
+	public boolean union(int a, int b) {
+		return unionRoots(find(a), find(b));
+	}
+
+	// Merge the sets with roots ra and rb
+	boolean unionRoots(int ra, int rb) {
+		if (ra == rb) {
+			return false;
+		}
+		if (size[ra] < size[rb]) {
+			int t = ra;
+			ra = rb;
+			rb = t;
+		}
+		parent[rb] = ra;
+		size[ra] += size[rb];
+		components--;
+		return true;
+	}
+
+	public boolean connected(int a, int b) {
+		return find(a) == find(b);
+	}
+
+	public int componentCount() {
+		return components;
+	}
+
+	// Number of elements in the set containing x
+	public int componentSize(int x) {
+		return size[find(x)];
+	}
+
+	public int elementCount() {
+		return elements;
+	}
+}
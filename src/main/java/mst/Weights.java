@@ -0,0 +1,29 @@
+package mst;
+
+// Double weights stored as long keys that sort like the doubles they encode.
+// The algorithms, the radix sort and the binary file format then only ever see longs, so a graph with
+// fractional weights runs the same primitive code as an integer graph; only presentation decodes them.
+// A non-negative double keeps its IEEE bits, a negative one has all bits but the sign flipped, which
+// reverses the order of negative magnitudes and puts them below every non-negative value.
+public final class Weights {
+	private Weights() {
+	}
+
+	public static long encode(double weight) {
+		if (Double.isNaN(weight)) {
+			throw new IllegalArgumentException("NaN is not a weight");
+		}
+		// Adding 0.0 turns -0.0 into 0.0, so equal weights get equal keys
+		long bits = Double.doubleToRawLongBits(weight + 0.0);
+		return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+	}
+
+	public static double decode(long key) {
+		return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+	}
+
+	// A weight as entered or read from a file: decoded for double weights, as is for integer weights
+	public static String format(long weight, boolean doubleWeights) {
+		return doubleWeights ? Double.toString(decode(weight)) : Long.toString(weight);
+	}
+}
@@ -0,0 +1,114 @@
+package mst;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class DynamicMstTest {
+	// The live edges of dynamic as a graph, in id order so that Kruskal breaks ties by id like DynamicMst
+	private static int[] kruskalIds(DynamicMst dynamic) {
+		Graph.Builder builder = new Graph.Builder().vertices(dynamic.vertexCount());
+		int[] ids = new int[dynamic.edgeCount()];
+		int count = 0;
+		for (int e = 0; e < dynamic.edgeCount(); e++) {
+			if (!dynamic.isDeleted(e)) {
+				builder.addEdge(dynamic.source(e), dynamic.target(e), dynamic.weight(e));
+				ids[count++] = e;
+			}
+		}
+		int[] tree = Mst.kruskal(builder.build());
+		for (int i = 0; i < tree.length; i++) {
+			tree[i] = ids[tree[i]];
+		}
+		Arrays.sort(tree);
+		return tree;
+	}
+
+	private static void assertMatchesKruskal(DynamicMst dynamic, String when) {
+		int[] expected = kruskalIds(dynamic);
+		int[] actual = dynamic.treeEdges();
+		Arrays.sort(actual);
+		assertArrayEquals(expected, actual, when);
+		long total = 0;
+		for (int e : expected) {
+			total += dynamic.weight(e);
+		}
+		assertEquals(total, dynamic.totalWeight(), when);
+		assertEquals(expected.length, dynamic.treeEdgeCount(), when);
+	}
+
+	// Random inserts, deletes and weight changes with few distinct weights, so ties are common.
+	// The forest must be the one Kruskal builds from scratch after every single update.
+	@Test
+	void randomUpdatesMatchKruskal() {
+		for (long seed = 1; seed <= 5; seed++) {
+			Random random = new Random(seed);
+			int n = 40;
+			DynamicMst dynamic = new DynamicMst(n);
+			int[] live = new int[100_000];
+			int liveCount = 0;
+			for (int step = 0; step < 3000; step++) {
+				int op = random.nextInt(10);
+				if (op < 4 || liveCount == 0) {
+					// Self-loops and parallel edges included
+					live[liveCount++] = dynamic.insertEdge(random.nextInt(n), random.nextInt(n), random.nextInt(10));
+				} else if (op < 6) {
+					int i = random.nextInt(liveCount);
+					dynamic.deleteEdge(live[i]);
+					live[i] = live[--liveCount];
+				} else {
+					dynamic.setWeight(live[random.nextInt(liveCount)], random.nextInt(10) - 2);
+				}
+				assertMatchesKruskal(dynamic, "seed " + seed + " step " + step);
+			}
+		}
+	}
+
+	@Test
+	void newVerticesStartAsTheirOwnTrees() {
+		DynamicMst dynamic = new DynamicMst(2);
+		dynamic.insertEdge(0, 1, 5);
+		int v = dynamic.addVertex();
+		assertEquals(1, dynamic.treeEdgeCount());
+		dynamic.insertEdge(v, 7, 3);
+		assertEquals(8, dynamic.vertexCount());
+		assertMatchesKruskal(dynamic, "after growing");
+		assertFalse(dynamic.isSpanningTree());
+	}
+
+	// update() applies only changed weights while the shape is the same and rebuilds otherwise
+	@Test
+	void updateFollowsWeightEditsAndRebuilds() {
+		Random random = new Random(3);
+		int n = 200;
+		Graph.Builder builder = new Graph.Builder().vertices(n);
+		for (int v = 1; v < n; v++) {
+			builder.addEdge(random.nextInt(v), v, random.nextInt(50));
+		}
+		for (int e = 0; e < 800; e++) {
+			builder.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(50));
+		}
+		Graph graph = builder.build();
+		DynamicMst dynamic = new DynamicMst(0);
+		for (int round = 0; round < 30; round++) {
+			MstResult result = dynamic.update(graph, MstMonitor.NONE);
+			int[] expected = Mst.kruskal(graph);
+			Arrays.sort(expected);
+			int[] actual = result.edges().clone();
+			Arrays.sort(actual);
+			assertArrayEquals(expected, actual, "round " + round);
+			assertTrue(dynamic.isSpanningTree());
+
+			long[] weights = graph.weights().clone();
+			for (int k = 0; k < 1 + random.nextInt(20); k++) {
+				weights[random.nextInt(weights.length)] = random.nextInt(50);
+			}
+			graph = graph.withWeights(weights);
+		}
+	}
+}
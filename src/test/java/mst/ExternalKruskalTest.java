@@ -0,0 +1,113 @@
+package mst;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExternalKruskalTest {
+	@TempDir
+	Path dir;
+
+	// A random edge list over ids 1..n with distinct weights, so the tree is unique. With fractionalFrom below
+	// the edge count, weights from that line on are quarters and the earlier runs hold integer keys.
+	private Path edgeList(int n, int m, int fractionalFrom, long seed) throws IOException {
+		Random random = new Random(seed);
+		List<Integer> order = new ArrayList<>();
+		for (int i = 0; i < m; i++) {
+			order.add(i - m / 2);
+		}
+		Collections.shuffle(order, random);
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < m; i++) {
+			int from = 1 + (i < n - 1 ? i + 1 : random.nextInt(n));
+			int to = 1 + (i < n - 1 ? random.nextInt(i + 1) : random.nextInt(n));
+			String weight = i < fractionalFrom ? Integer.toString(order.get(i)) : Double.toString(order.get(i) + 0.25);
+			text.append(from).append(' ').append(to).append(' ').append(weight).append('\n');
+		}
+		return Files.write(dir.resolve("g" + seed + ".txt"), text.toString().getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private Path temp() throws IOException {
+		return Files.createDirectories(dir.resolve("runs"));
+	}
+
+	// The tree edges of result and of Kruskal on the loaded file, as "source target" name pairs
+	private static void assertSameTree(Graph graph, ExternalKruskal.Result result) {
+		int[] tree = Mst.kruskal(graph);
+		assertEquals(tree.length, result.edgeCount());
+		Set<String> expected = new HashSet<>();
+		double total = 0;
+		for (int e : tree) {
+			expected.add(pair(graph.name(graph.source(e)), graph.name(graph.target(e))));
+			total += graph.hasDoubleWeights() ? graph.doubleWeight(e) : graph.weight(e);
+		}
+		Set<String> actual = new HashSet<>();
+		for (int i = 0; i < result.edgeCount(); i++) {
+			actual.add(pair(result.name(result.source(i)), result.name(result.target(i))));
+		}
+		assertEquals(expected, actual);
+		assertEquals(graph.hasDoubleWeights(), result.hasDoubleWeights());
+		assertEquals(total, result.doubleTotalWeight(), 0);
+	}
+
+	private static String pair(String a, String b) {
+		return a.compareTo(b) < 0 ? a + " " + b : b + " " + a;
+	}
+
+	private static long files(Path directory) throws IOException {
+		try (Stream<Path> list = Files.list(directory)) {
+			return list.count();
+		}
+	}
+
+	// 3-edge runs give more than MAX_FAN_IN runs, so the runs go through an intermediate merge pass
+	@Test
+	void manyRunsMergeInTwoPasses() throws IOException {
+		Path file = edgeList(400, 1200, 1200, 1);
+		Path temp = temp();
+		ExternalKruskal.Result result = new ExternalKruskal(3, temp).run(file);
+		assertTrue(result.runCount() > ExternalKruskal.MAX_FAN_IN);
+		assertEquals(2, result.mergePasses());
+		assertEquals(1200, result.inputEdgeCount());
+		assertFalse(result.hasDoubleWeights());
+		assertSameTree(GraphLoader.load(file), result);
+		assertEquals(0, files(temp));
+	}
+
+	// Fractional weights halfway through: the integer runs already written are re-encoded while merging
+	@Test
+	void switchToDoubleWeightsMidFile() throws IOException {
+		Path file = edgeList(400, 1200, 700, 2);
+		Path temp = temp();
+		ExternalKruskal.Result result = new ExternalKruskal(3, temp).run(file);
+		assertTrue(result.runCount() > ExternalKruskal.MAX_FAN_IN);
+		assertTrue(result.hasDoubleWeights());
+		assertSameTree(GraphLoader.load(file), result);
+		assertEquals(0, files(temp));
+	}
+
+	// Ids from 1 keep their names, and a single run needs no intermediate pass
+	@Test
+	void idsFromOneKeepTheirNames() throws IOException {
+		Path file = edgeList(50, 120, 60, 3);
+		ExternalKruskal.Result result = new ExternalKruskal(1000, temp()).run(file);
+		assertEquals(1, result.runCount());
+		assertEquals(1, result.mergePasses());
+		assertEquals(50, result.vertexCount());
+		assertSameTree(GraphLoader.load(file), result);
+	}
+}
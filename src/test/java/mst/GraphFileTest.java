@@ -0,0 +1,118 @@
+package mst;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GraphFileTest {
+	@TempDir
+	Path dir;
+
+	// 4 vertices and 4 edges: offsets take 5 ints, padded to 24 bytes, then 8 adjacent targets and 8 adjacent edges
+	private static final int OFFSETS = GraphFile.HEADER_BYTES;
+	private static final int ADJACENT_TARGETS = OFFSETS + 24;
+	private static final int ADJACENT_EDGES = ADJACENT_TARGETS + 32;
+	private static final int SOURCES = ADJACENT_EDGES + 32;
+
+	private Path saved(Graph graph) throws IOException {
+		Path file = dir.resolve("g.mstg");
+		GraphFile.write(graph, file);
+		return file;
+	}
+
+	private static Graph sample(boolean names) {
+		Graph.Builder builder = new Graph.Builder();
+		if (names) {
+			builder.addEdge("A", "B", 3);
+			builder.addEdge("B", "C", -1);
+			builder.addEdge("C", "D", 4);
+			builder.addEdge("D", "A", 2);
+		} else {
+			builder.vertices(4);
+			builder.addEdge(0, 1, 3);
+			builder.addEdge(1, 2, -1);
+			builder.addEdge(2, 3, 4);
+			builder.addEdge(3, 0, 2);
+		}
+		return builder.build();
+	}
+
+	// Overwrite the int at position of file
+	private static void putInt(Path file, int position, int value) throws IOException {
+		byte[] bytes = Files.readAllBytes(file);
+		ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(position, value);
+		Files.write(file, bytes);
+	}
+
+	@Test
+	void roundTrip() throws IOException {
+		for (boolean names : new boolean[] {false, true}) {
+			Graph graph = sample(names);
+			Graph loaded = GraphFile.load(saved(graph));
+			assertTrue(graph.sameContent(loaded));
+			assertEquals(graph.name(3), loaded.name(3));
+		}
+	}
+
+	@Test
+	void negativeCounts() throws IOException {
+		Path file = saved(sample(false));
+		putInt(file, 12, -4);
+		assertThrows(IOException.class, () -> GraphFile.load(file));
+		Path other = saved(sample(false));
+		putInt(other, 16, -1);
+		assertThrows(IOException.class, () -> GraphFile.load(other));
+	}
+
+	@Test
+	void offsetsOutOfOrder() throws IOException {
+		Path file = saved(sample(false));
+		putInt(file, OFFSETS + 8, 1);
+		assertThrows(IOException.class, () -> GraphFile.load(file));
+	}
+
+	@Test
+	void offsetsNotEndingAtTwiceTheEdges() throws IOException {
+		Path file = saved(sample(false));
+		putInt(file, OFFSETS + 16, 7);
+		assertThrows(IOException.class, () -> GraphFile.load(file));
+	}
+
+	@Test
+	void idsOutOfRange() throws IOException {
+		int[][] corruptions = {{ADJACENT_TARGETS + 4, 4}, {ADJACENT_EDGES, -1}, {ADJACENT_EDGES + 8, 4}, {SOURCES, 9},
+				{SOURCES + 16 + 4, -2}};
+		for (int[] corruption : corruptions) {
+			Path file = saved(sample(false));
+			putInt(file, corruption[0], corruption[1]);
+			assertThrows(IOException.class, () -> GraphFile.load(file), "at byte " + corruption[0]);
+		}
+	}
+
+	// A header claiming fewer edges still lines up with 8-byte sections but no longer matches the offsets
+	@Test
+	void truncatedButAligned() throws IOException {
+		Path file = saved(sample(false));
+		putInt(file, 16, 2);
+		assertThrows(IOException.class, () -> GraphFile.load(file));
+	}
+
+	@Test
+	void corruptNameOffsets() throws IOException {
+		Path file = saved(sample(true));
+		byte[] bytes = Files.readAllBytes(file);
+		// The name offsets follow the 4 weights, which end the edge sections
+		int names = SOURCES + 16 + 16 + 32;
+		ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(names + 8, -5);
+		Files.write(file, bytes);
+		assertThrows(IOException.class, () -> GraphFile.load(file));
+	}
+}
@@ -0,0 +1,161 @@
+package mst;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GraphLoaderTest {
+	@TempDir
+	Path dir;
+
+	private Path write(String name, String text) throws IOException {
+		return Files.write(dir.resolve(name), text.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	// One edge list line per weight, loaded through the fast parser
+	private Graph weights(String... weights) throws IOException {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < weights.length; i++) {
+			text.append(i).append(' ').append(i + 1).append(' ').append(weights[i]).append('\n');
+		}
+		Graph graph = GraphLoader.load(write("weights.txt", text.toString()), GraphLoader.Format.EDGE_LIST);
+		assertEquals(weights.length, graph.edgeCount());
+		return graph;
+	}
+
+	@Test
+	void signedWholeWeights() throws IOException {
+		Graph graph = weights("7", "-3", "+4", "-0", "0");
+		assertFalse(graph.hasDoubleWeights());
+		assertArrayEquals(new long[] {7, -3, 4, 0, 0}, graph.weights());
+	}
+
+	@Test
+	void negativeWeightsWithZeroIntegerPartKeepTheirSign() throws IOException {
+		Graph graph = weights("-0.5e1", "-0.50e1", "-0.0e0", "0.5e1");
+		assertFalse(graph.hasDoubleWeights());
+		assertArrayEquals(new long[] {-5, -5, 0, 5}, graph.weights());
+	}
+
+	@Test
+	void wholeDecimalAndExponentWeightsStayIntegers() throws IOException {
+		Graph graph = weights("2.0", "-2.000", "1.5e3", "-2.5E+2", "12e0", "1200e-2", "-7E1");
+		assertFalse(graph.hasDoubleWeights());
+		assertArrayEquals(new long[] {2, -2, 1500, -250, 12, 12, -70}, graph.weights());
+	}
+
+	@Test
+	void fractionalWeightsSwitchToDoubles() throws IOException {
+		Graph graph = weights("3", "0.25", "-0.5", "-.5", "2e-3", "-1.25e-1");
+		assertTrue(graph.hasDoubleWeights());
+		double[] expected = {3, 0.25, -0.5, -0.5, 0.002, -0.125};
+		for (int e = 0; e < expected.length; e++) {
+			assertEquals(expected[e], graph.doubleWeight(e), 0);
+		}
+	}
+
+	@Test
+	void weightsBeyondTheLongRangeAreDoubles() throws IOException {
+		Graph graph = weights("1e30", "-1e30", "99999999999999999999");
+		assertTrue(graph.hasDoubleWeights());
+		assertEquals(1e30, graph.doubleWeight(0), 0);
+		assertEquals(-1e30, graph.doubleWeight(1), 0);
+		assertEquals(1e20, graph.doubleWeight(2), 1e5);
+	}
+
+	// Exponents beyond the int range used to wrap around, e.g. 1e4294967297 loaded as 10
+	@Test
+	void hugeExponentsAreDoublesOrZero() throws IOException {
+		Graph graph = weights("1e4294967297", "5e4294967296", "-2e20", "0e2000000000", "-0.0e99999999999", "1e18");
+		assertTrue(graph.hasDoubleWeights());
+		assertEquals(Double.POSITIVE_INFINITY, graph.doubleWeight(0), 0);
+		assertEquals(Double.POSITIVE_INFINITY, graph.doubleWeight(1), 0);
+		assertEquals(-2e20, graph.doubleWeight(2), 0);
+		assertEquals(0, graph.doubleWeight(3), 0);
+		assertEquals(0, graph.doubleWeight(4), 0);
+		assertEquals(1e18, graph.doubleWeight(5), 0);
+	}
+
+	@Test
+	void zeroWithLargeExponentIsAnIntegerZero() throws IOException {
+		Graph graph = weights("0e2000000000", "0.000e-2000000000", "7");
+		assertFalse(graph.hasDoubleWeights());
+		assertArrayEquals(new long[] {0, 0, 7}, graph.weights());
+	}
+
+	@Test
+	void missingWeightIsOne() throws IOException {
+		Graph graph = GraphLoader.load(write("plain.txt", "0 1\n1 2 4\n"), GraphLoader.Format.EDGE_LIST);
+		assertArrayEquals(new long[] {1, 4}, graph.weights());
+	}
+
+	@Test
+	void edgeListFromOneKeepsItsIds() throws IOException {
+		Graph graph = GraphLoader.load(write("ones.txt", "# comment\n1 2 5\n2 3 -6\n"), GraphLoader.Format.EDGE_LIST);
+		assertEquals(3, graph.vertexCount());
+		assertEquals("1", graph.name(0));
+		assertEquals("3", graph.name(2));
+		assertArrayEquals(new long[] {5, -6}, graph.weights());
+	}
+
+	@Test
+	void namedEdgeListKeepsSignedAndFractionalWeights() throws IOException {
+		Graph graph = GraphLoader.load(write("named.txt", "A B -0.5e1\nB C 2.5\n"), GraphLoader.Format.EDGE_LIST);
+		assertEquals("A", graph.name(graph.source(0)));
+		assertEquals(-5, graph.doubleWeight(0), 0);
+		assertEquals(2.5, graph.doubleWeight(1), 0);
+	}
+
+	@Test
+	void dimacs() throws IOException {
+		Path file = write("g.gr", "c comment\np sp 4 3\na 1 2 -0.5e1\na 2 3 7\na 3 4 1.5e1\n");
+		assertEquals(GraphLoader.Format.DIMACS, GraphLoader.detect(file));
+		Graph graph = GraphLoader.load(file);
+		assertEquals(4, graph.vertexCount());
+		assertEquals(0, graph.source(0));
+		assertEquals("1", graph.name(0));
+		assertArrayEquals(new long[] {-5, 7, 15}, graph.weights());
+	}
+
+	@Test
+	void matrixMarket() throws IOException {
+		Path file = write("g.mtx", "%%MatrixMarket matrix coordinate real symmetric\n% comment\n3 3 2\n2 1 -0.25\n3 2 1e-1\n");
+		assertEquals(GraphLoader.Format.MATRIX_MARKET, GraphLoader.detect(file));
+		Graph graph = GraphLoader.load(file);
+		assertEquals(3, graph.vertexCount());
+		assertTrue(graph.hasDoubleWeights());
+		assertEquals(-0.25, graph.doubleWeight(0), 0);
+		assertEquals(0.1, graph.doubleWeight(1), 0);
+	}
+
+	@Test
+	void points() throws IOException {
+		Path file = write("p.xy", "# x y\n0 0\n3,4\n-1.5e1 2E-1\n");
+		assertEquals(GraphLoader.Format.POINTS, GraphLoader.detect(file));
+		EuclideanMst.Points points = GraphLoader.readPoints(file);
+		assertArrayEquals(new double[] {0, 3, -15}, points.x(), 0);
+		assertArrayEquals(new double[] {0, 4, 0.2}, points.y(), 0);
+	}
+
+	// Windows much smaller than the file split lines and numbers between mappings
+	@Test
+	void smallWindowsParseLikeOne() throws IOException {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			text.append(i).append(' ').append(i + 1).append(' ').append(i % 3 == 0 ? "-0.5e1" : Integer.toString(-i)).append('\n');
+		}
+		Path file = write("long.txt", text.toString());
+		Graph whole = GraphLoader.load(file, GraphLoader.Format.EDGE_LIST);
+		Graph windowed = GraphLoader.load(file, GraphLoader.Format.EDGE_LIST, 4096);
+		assertTrue(whole.sameContent(windowed));
+		assertEquals(-5, whole.weight(0));
+	}
+}
@@ -0,0 +1,99 @@
+package mst;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LinkCutTreeTest {
+	// Random links, cuts and key changes on a forest of vertex and edge nodes, checked against a breadth-first
+	// search over the same forest after every operation
+	@Test
+	void matchesBruteForceForest() {
+		Random random = new Random(11);
+		int n = 60;
+		LinkCutTree tree = new LinkCutTree(2 * n);
+		int[] vertexNode = new int[n];
+		for (int v = 0; v < n; v++) {
+			vertexNode[v] = tree.addVertex();
+		}
+		// Forest edges: id -> {u, v, node}, weights by id
+		List<int[]> edges = new ArrayList<>();
+		long[] weight = new long[100_000];
+		int nextId = 0;
+
+		for (int step = 0; step < 20_000; step++) {
+			int op = random.nextInt(10);
+			if (op < 4) {
+				int u = random.nextInt(n);
+				int v = random.nextInt(n);
+				if (u != v && path(n, edges, u, v) == null) {
+					int id = nextId++;
+					weight[id] = random.nextInt(20);
+					int node = tree.addEdge(id, weight[id]);
+					tree.link(vertexNode[u], node);
+					tree.link(node, vertexNode[v]);
+					edges.add(new int[] {u, v, node, id});
+				}
+			} else if (op < 6 && !edges.isEmpty()) {
+				int[] e = edges.remove(random.nextInt(edges.size()));
+				tree.cut(vertexNode[e[0]], e[2]);
+				tree.cut(e[2], vertexNode[e[1]]);
+				tree.release(e[2]);
+			} else if (op < 7 && !edges.isEmpty()) {
+				int[] e = edges.get(random.nextInt(edges.size()));
+				weight[e[3]] = random.nextInt(20);
+				tree.setKey(e[2], weight[e[3]]);
+			} else {
+				int u = random.nextInt(n);
+				int v = random.nextInt(n);
+				List<int[]> path = path(n, edges, u, v);
+				assertEquals(path != null, tree.connected(vertexNode[u], vertexNode[v]), "connected at step " + step);
+				if (path != null) {
+					int expected = -1;
+					for (int[] e : path) {
+						int id = e[3];
+						if (expected < 0 || weight[id] > weight[expected] || (weight[id] == weight[expected] && id > expected)) {
+							expected = id;
+						}
+					}
+					assertEquals(expected, tree.heaviestOnPath(vertexNode[u], vertexNode[v]), "heaviest at step " + step);
+				}
+			}
+		}
+	}
+
+	// Forest edges on the path from u to v, or null if they are not connected
+	private static List<int[]> path(int n, List<int[]> edges, int u, int v) {
+		int[] via = new int[n];
+		Arrays.fill(via, -2);
+		via[u] = -1;
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		queue.add(u);
+		while (!queue.isEmpty()) {
+			int x = queue.poll();
+			for (int i = 0; i < edges.size(); i++) {
+				int[] e = edges.get(i);
+				int y = e[0] == x ? e[1] : e[1] == x ? e[0] : -1;
+				if (y >= 0 && via[y] == -2) {
+					via[y] = i;
+					queue.add(y);
+				}
+			}
+		}
+		if (via[v] == -2) {
+			return null;
+		}
+		List<int[]> path = new ArrayList<>();
+		for (int x = v; x != u; ) {
+			int[] e = edges.get(via[x]);
+			path.add(e);
+			x = e[0] == x ? e[1] : e[0];
+		}
+		return path;
+	}
+}